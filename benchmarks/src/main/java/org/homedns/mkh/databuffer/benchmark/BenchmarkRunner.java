@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks runner, accepts the standard JMH command line options and always
+ * adds the gc profiler to report the allocation rate along with the
+ * throughput.
+ *
+ */
+public class BenchmarkRunner {
+
+	public static void main( String[] args ) throws Exception {
+		CommandLineOptions cmdOptions = new CommandLineOptions( args );
+		if( cmdOptions.shouldHelp( ) ) {
+			cmdOptions.showHelp( );
+			return;
+		}
+		if( cmdOptions.shouldList( ) ) {
+			new Runner( cmdOptions ).list( );
+			return;
+		}
+		Options options = new OptionsBuilder( )
+			.parent( cmdOptions )
+			.addProfiler( GCProfiler.class )
+			.build( );
+		new Runner( options ).run( );
+	}
+}
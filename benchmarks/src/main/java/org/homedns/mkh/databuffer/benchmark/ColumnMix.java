@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import org.homedns.mkh.databuffer.Type;
+
+/**
+ * Benchmark table column mixes, the key column of INT type goes first and
+ * isn't included in the mix
+ *
+ */
+public enum ColumnMix {
+	/**
+	 * numeric columns only
+	 */
+	NUMERIC( Type.INT, Type.LONG, Type.DOUBLE, Type.LONG, Type.DOUBLE ),
+	/**
+	 * string columns only
+	 */
+	TEXT( Type.STRING, Type.STRING, Type.ASCIISTRING, Type.HEXSTRING, Type.STRING ),
+	/**
+	 * typical business table columns
+	 */
+	MIXED( Type.STRING, Type.INT, Type.TIMESTAMP, Type.DOUBLE, Type.LONG, Type.BOOLEAN ),
+	/**
+	 * all data buffer data types
+	 */
+	ALL( Type.values( ) );
+
+	private List< Type > types;
+
+	/**
+	 * @param types the column types
+	 */
+	private ColumnMix( Type... types ) {
+		this.types = Arrays.asList( types );
+	}
+
+	/**
+	 * Returns column types
+	 * 
+	 * @return the column types
+	 */
+	public List< Type > getTypes( ) {
+		return( types );
+	}
+}
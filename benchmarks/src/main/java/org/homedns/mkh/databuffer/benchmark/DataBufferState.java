@@ -0,0 +1,427 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer.benchmark;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.h2.jdbcx.JdbcDataSource;
+import org.homedns.mkh.databuffer.AbstractDataBuffer;
+import org.homedns.mkh.databuffer.Column;
+import org.homedns.mkh.databuffer.ColumnarDataBuffer;
+import org.homedns.mkh.databuffer.DBConnection;
+import org.homedns.mkh.databuffer.DataBufferDesc;
+import org.homedns.mkh.databuffer.DataBufferImpl;
+import org.homedns.mkh.databuffer.Table;
+import org.homedns.mkh.databuffer.Type;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state: the embedded in-memory database with the source table
+ * filled by the generated rows and the retrieved data buffer over it. Every
+ * tenth value of the non key columns is null.
+ *
+ */
+@State( Scope.Benchmark )
+public class DataBufferState {
+	public static final String SOURCE_TABLE = "bench_source";
+	public static final String TARGET_TABLE = "bench_target";
+
+	private static final AtomicInteger DB_COUNTER = new AtomicInteger( );
+	private static final long BASE_TIME = Timestamp.valueOf( "2024-01-01 00:00:00" ).getTime( );
+	private static final int COMMIT_INTERVAL = 10000;
+
+	/**
+	 * the rows count
+	 */
+	@Param( { "1000", "10000", "100000", "1000000" } )
+	public int rows;
+
+	/**
+	 * the column mix
+	 */
+	@Param( { "NUMERIC", "TEXT", "MIXED", "ALL" } )
+	public ColumnMix columns;
+
+	/**
+	 * the data buffer storage
+	 */
+	@Param( { Table.ROWSET, Table.COLUMNAR } )
+	public String storage;
+
+	private JdbcDataSource h2;
+	private Connection keepAlive;
+	private DBConnection dbConn;
+	private List< Type > types;
+	private AbstractDataBuffer buffer;
+	private Serializable[][] data;
+	private String sJson;
+	private String sXml;
+	private byte[] binary;
+	private String sCsv;
+
+	/**
+	 * Creates and fills the source table, retrieves the data buffer.
+	 * 
+	 * @throws Exception
+	 */
+	@Setup( Level.Trial )
+	public void setup( ) throws Exception {
+		h2 = new JdbcDataSource( );
+		h2.setURL( "jdbc:h2:mem:bench" + DB_COUNTER.incrementAndGet( ) );
+		// in-memory database lives while at least one connection is open
+		keepAlive = h2.getConnection( );
+		dbConn = new DBConnection( h2 );
+		types = new ArrayList< >( );
+		types.add( Type.INT );
+		types.addAll( columns.getTypes( ) );
+		data = new Serializable[ rows ][ ];
+		for( int iRow = 0; iRow < rows; iRow++ ) {
+			data[ iRow ] = getRow( iRow );
+		}
+		createTable( SOURCE_TABLE );
+		createTable( TARGET_TABLE );
+		fill( SOURCE_TABLE );
+		buffer = newDataBuffer( SOURCE_TABLE );
+		buffer.retrieve( );
+		sJson = buffer.getJson( );
+		sXml = buffer.getXml( );
+		binary = buffer.getBinary( );
+		sCsv = buffer.getCsv( );
+	}
+
+	/**
+	 * Closes the data buffer and drops the database.
+	 * 
+	 * @throws Exception
+	 */
+	@TearDown( Level.Trial )
+	public void tearDown( ) throws Exception {
+		buffer.close( );
+		try( Statement stmt = keepAlive.createStatement( ) ) {
+			stmt.execute( "SHUTDOWN" );
+		}
+		keepAlive.close( );
+	}
+
+	/**
+	 * Returns new data buffer over the specified table, the data buffer isn't
+	 * retrieved.
+	 * 
+	 * @param sTable
+	 *            the table name
+	 * 
+	 * @return the data buffer
+	 * 
+	 * @throws Exception
+	 */
+	public AbstractDataBuffer newDataBuffer( String sTable ) throws Exception {
+		if( Table.COLUMNAR.equals( storage ) ) {
+			return( new ColumnarDataBuffer( getDescription( sTable ), dbConn ) );
+		}
+		return( new DataBufferImpl( getDescription( sTable ), dbConn ) );
+	}
+
+	/**
+	 * Deletes all rows from the specified table.
+	 * 
+	 * @param sTable
+	 *            the table name
+	 * 
+	 * @throws SQLException
+	 */
+	public void truncate( String sTable ) throws SQLException {
+		try( Statement stmt = keepAlive.createStatement( ) ) {
+			stmt.execute( "TRUNCATE TABLE " + sTable );
+		}
+	}
+
+	/**
+	 * Returns retrieved data buffer over the source table
+	 * 
+	 * @return the data buffer
+	 */
+	public AbstractDataBuffer getDataBuffer( ) {
+		return( buffer );
+	}
+
+	/**
+	 * Returns the generated rows
+	 * 
+	 * @return the rows
+	 */
+	public Serializable[][] getData( ) {
+		return( data );
+	}
+
+	/**
+	 * Returns the source table rows as JSON
+	 * 
+	 * @return the JSON string
+	 */
+	public String getJson( ) {
+		return( sJson );
+	}
+
+	/**
+	 * Returns the source table rows as XML
+	 * 
+	 * @return the XML string
+	 */
+	public String getXml( ) {
+		return( sXml );
+	}
+
+	/**
+	 * Returns the source table rows in binary format
+	 * 
+	 * @return the binary data
+	 */
+	public byte[] getBinary( ) {
+		return( binary );
+	}
+
+	/**
+	 * Returns the source table rows in CSV format
+	 * 
+	 * @return the CSV string
+	 */
+	public String getCsv( ) {
+		return( sCsv );
+	}
+
+	/**
+	 * Returns data buffer description for the specified table
+	 * 
+	 * @param sTable
+	 *            the table name
+	 * 
+	 * @return the data buffer description
+	 * 
+	 * @throws Exception
+	 */
+	private DataBufferDesc getDescription( String sTable ) throws Exception {
+		Table table = new Table( );
+		table.setUpdateTableName( sTable );
+		table.setQuery( "SELECT " + getColumnList( ) + " FROM " + sTable );
+		table.setPKcol( getColName( 0 ) );
+		table.setRowCountCol( "" );
+		table.setReportData( "" );
+		table.setPageSize( 0 );
+		table.setStorage( storage );
+		Column[] cols = new Column[ types.size( ) ];
+		for( int iCol = 0; iCol < cols.length; iCol++ ) {
+			Column col = new Column( );
+			col.setName( getColName( iCol ) );
+			col.setDBName( getColName( iCol ) );
+			col.setType( types.get( iCol ).getName( ) );
+			col.setUpdate( true );
+			col.setStyle( Column.EDIT );
+			cols[ iCol ] = col;
+		}
+		DataBufferDesc desc = new DataBufferDesc( );
+		desc.setName( sTable );
+		desc.setTitle( sTable );
+		desc.setTable( table );
+		desc.setColumns( cols );
+		desc.init( sName -> null );
+		return( desc );
+	}
+
+	/**
+	 * Creates the specified table
+	 * 
+	 * @param sTable
+	 *            the table name
+	 * 
+	 * @throws SQLException
+	 */
+	private void createTable( String sTable ) throws SQLException {
+		StringBuilder sb = new StringBuilder( "CREATE TABLE " ).append( sTable ).append( "( " );
+		for( int iCol = 0; iCol < types.size( ); iCol++ ) {
+			sb.append( getColName( iCol ) ).append( ' ' ).append( getSQLTypeName( types.get( iCol ) ) );
+			sb.append( iCol == 0 ? " PRIMARY KEY, " : ", " );
+		}
+		sb.setLength( sb.length( ) - 2 );
+		sb.append( " )" );
+		try( Statement stmt = keepAlive.createStatement( ) ) {
+			stmt.execute( sb.toString( ) );
+		}
+	}
+
+	/**
+	 * Fills the specified table by the generated rows
+	 * 
+	 * @param sTable
+	 *            the table name
+	 * 
+	 * @throws SQLException
+	 */
+	private void fill( String sTable ) throws SQLException {
+		StringBuilder sb = new StringBuilder( "INSERT INTO " ).append( sTable ).append( " VALUES( " );
+		for( int iCol = 0; iCol < types.size( ); iCol++ ) {
+			sb.append( iCol == 0 ? "?" : ", ?" );
+		}
+		sb.append( " )" );
+		keepAlive.setAutoCommit( false );
+		try( PreparedStatement stmt = keepAlive.prepareStatement( sb.toString( ) ) ) {
+			for( int iRow = 0; iRow < rows; iRow++ ) {
+				for( int iCol = 0; iCol < types.size( ); iCol++ ) {
+					stmt.setObject( iCol + 1, data[ iRow ][ iCol ] );
+				}
+				stmt.addBatch( );
+				if( ( iRow + 1 ) % COMMIT_INTERVAL == 0 ) {
+					stmt.executeBatch( );
+					keepAlive.commit( );
+				}
+			}
+			stmt.executeBatch( );
+			keepAlive.commit( );
+		}
+		finally {
+			keepAlive.setAutoCommit( true );
+		}
+	}
+
+	/**
+	 * Returns generated row
+	 * 
+	 * @param iRow
+	 *            the row index
+	 * 
+	 * @return the row values
+	 */
+	private Serializable[] getRow( int iRow ) {
+		Serializable[] row = new Serializable[ types.size( ) ];
+		row[ 0 ] = iRow + 1;
+		for( int iCol = 1; iCol < row.length; iCol++ ) {
+			if( ( iRow + iCol ) % 10 != 0 ) {
+				row[ iCol ] = getValue( types.get( iCol ), iRow, iCol );
+			}
+		}
+		return( row );
+	}
+
+	/**
+	 * Returns generated value, the value is of the type the data buffer
+	 * returns for the data type
+	 * 
+	 * @param type
+	 *            the data type
+	 * @param iRow
+	 *            the row index
+	 * @param iCol
+	 *            the column index
+	 * 
+	 * @return the value
+	 */
+	private Serializable getValue( Type type, int iRow, int iCol ) {
+		switch( type ) {
+			case BYTE:
+				return( ( iRow + iCol ) % 128 );
+			case SHORT:
+				return( ( iRow + iCol ) % Short.MAX_VALUE );
+			case INT:
+				return( iRow * iCol );
+			case LONG:
+				return( iRow * 1000L + iCol );
+			case TIMESTAMP:
+				return( new Timestamp( BASE_TIME + iRow * 60000L ) );
+			case DOUBLE:
+				return( iRow * 1.25 + iCol );
+			case FLOAT:
+				return( iRow * 0.5 + iCol );
+			case BOOLEAN:
+				return( iRow % 2 == 0 );
+			case HEXSTRING:
+				return( Long.toHexString( iRow * 31L + iCol ) );
+			case ASCIISTRING:
+				return( "ascii" + iRow );
+			default:
+				return( "value " + ( iRow % 1000 ) + " of column " + iCol );
+		}
+	}
+
+	/**
+	 * Returns database column type for the data type
+	 * 
+	 * @param type
+	 *            the data type
+	 * 
+	 * @return the column type
+	 */
+	private static String getSQLTypeName( Type type ) {
+		switch( type ) {
+			case BYTE:
+				return( "TINYINT" );
+			case SHORT:
+				return( "SMALLINT" );
+			case INT:
+				return( "INT" );
+			case LONG:
+				return( "BIGINT" );
+			case TIMESTAMP:
+				return( "TIMESTAMP" );
+			case DOUBLE:
+				return( "DOUBLE" );
+			case FLOAT:
+				return( "FLOAT" );
+			case BOOLEAN:
+				return( "BOOLEAN" );
+			default:
+				return( "VARCHAR(64)" );
+		}
+	}
+
+	/**
+	 * Returns column name
+	 * 
+	 * @param iCol
+	 *            the column index
+	 * 
+	 * @return the column name
+	 */
+	private static String getColName( int iCol ) {
+		return( "c" + iCol );
+	}
+
+	/**
+	 * Returns comma separated column names
+	 * 
+	 * @return the column list
+	 */
+	private String getColumnList( ) {
+		StringBuilder sb = new StringBuilder( );
+		for( int iCol = 0; iCol < types.size( ); iCol++ ) {
+			sb.append( iCol == 0 ? "" : ", " ).append( getColName( iCol ) );
+		}
+		return( sb.toString( ) );
+	}
+}
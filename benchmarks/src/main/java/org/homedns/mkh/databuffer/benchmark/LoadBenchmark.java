@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.homedns.mkh.databuffer.AbstractDataBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load path benchmarks: the data buffer filled from JSON and XML, each
+ * invocation loads into the new data buffer because the data is appended
+ *
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" } )
+public class LoadBenchmark {
+
+	@Benchmark
+	public int putJson( DataBufferState state ) throws Exception {
+		try( AbstractDataBuffer db = state.newDataBuffer( DataBufferState.SOURCE_TABLE ) ) {
+			db.putJson( state.getJson( ) );
+			return( db.getRowCount( ) );
+		}
+	}
+
+	@Benchmark
+	public int putXml( DataBufferState state ) throws Exception {
+		try( AbstractDataBuffer db = state.newDataBuffer( DataBufferState.SOURCE_TABLE ) ) {
+			db.putXml( state.getXml( ) );
+			return( db.getRowCount( ) );
+		}
+	}
+
+	@Benchmark
+	public int putBinary( DataBufferState state ) throws Exception {
+		try( AbstractDataBuffer db = state.newDataBuffer( DataBufferState.SOURCE_TABLE ) ) {
+			db.putBinary( state.getBinary( ) );
+			return( db.getRowCount( ) );
+		}
+	}
+
+	@Benchmark
+	public int putCsv( DataBufferState state ) throws Exception {
+		try( AbstractDataBuffer db = state.newDataBuffer( DataBufferState.SOURCE_TABLE ) ) {
+			db.putCsv( new StringReader( state.getCsv( ) ) );
+			return( db.getRowCount( ) );
+		}
+	}
+}
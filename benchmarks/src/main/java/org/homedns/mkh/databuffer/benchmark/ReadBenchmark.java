@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer.benchmark;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read path benchmarks: retrieve and the retrieved data conversions
+ *
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" } )
+public class ReadBenchmark {
+
+	@Benchmark
+	public int retrieve( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).retrieve( ) );
+	}
+
+	@Benchmark
+	public String[][] getData( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).getData( ) );
+	}
+
+	@Benchmark
+	public List< List< Serializable > > getDataAsList( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).getDataAsList( ) );
+	}
+
+	@Benchmark
+	public String getJson( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).getJson( ) );
+	}
+
+	@Benchmark
+	public String getXml( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).getXml( ) );
+	}
+
+	@Benchmark
+	public byte[] getBinary( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).getBinary( ) );
+	}
+
+	@Benchmark
+	public String getCsv( DataBufferState state ) throws Exception {
+		return( state.getDataBuffer( ).getCsv( ) );
+	}
+}
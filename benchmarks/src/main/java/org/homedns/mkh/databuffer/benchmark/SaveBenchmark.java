@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.homedns.mkh.databuffer.AbstractDataBuffer;
+import org.homedns.mkh.databuffer.api.DataBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Save path benchmarks: all generated rows are inserted into the empty target
+ * table row by row and in batch, the measured time includes the target data
+ * buffer retrieve following the save. Batch save is measured with all rows
+ * sent in one batch and by batches of 1000 rows. Each invocation inserts the
+ * same keys, so the target table is truncated before each invocation and the
+ * single shot time is measured.
+ *
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" } )
+@State( Scope.Thread )
+public class SaveBenchmark {
+	/**
+	 * the batch size, 0 - all rows are sent in one batch
+	 */
+	@Param( { "0", "1000" } )
+	public int batchSize;
+
+	private AbstractDataBuffer target;
+
+	@Setup( Level.Trial )
+	public void setup( DataBufferState state ) throws Exception {
+		target = state.newDataBuffer( DataBufferState.TARGET_TABLE );
+		target.getDescription( ).getTable( ).setBatchSize( batchSize );
+	}
+
+	@TearDown( Level.Trial )
+	public void tearDown( ) throws Exception {
+		target.close( );
+	}
+
+	@Setup( Level.Invocation )
+	public void truncate( DataBufferState state ) throws Exception {
+		state.truncate( DataBufferState.TARGET_TABLE );
+	}
+
+	@Benchmark
+	public void save( DataBufferState state ) throws Exception {
+		target.save( 
+			DataBuffer.INSERT, DataBuffer.SERIALIZABLE_ARRAY, false, state.getData( ) 
+		);
+	}
+
+	@Benchmark
+	public void saveBatch( DataBufferState state ) throws Exception {
+		target.save( 
+			DataBuffer.INSERT, DataBuffer.SERIALIZABLE_ARRAY, true, state.getData( ) 
+		);
+	}
+}
@@ -0,0 +1,2965 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import javax.sql.DataSource;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.log4j.Logger;
+import org.homedns.mkh.databuffer.api.BatchListener;
+import org.homedns.mkh.databuffer.api.DataBuffer;
+import org.homedns.mkh.databuffer.api.DataRow;
+import org.homedns.mkh.databuffer.api.Metrics;
+import org.homedns.mkh.databuffer.api.RowConsumer;
+import org.homedns.mkh.util.Util;
+import com.akiban.sql.StandardException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Base data buffer, implements storage independent part of the data buffer:
+ * modification queries, saving, data conversion and export. Subclasses
+ * provide the storage itself. Row and column indexes used by storage methods
+ * are 1-based as in JDBC.
+ *
+ */
+public abstract class AbstractDataBuffer implements DataBuffer {
+	private static final Logger LOG = Logger.getLogger( AbstractDataBuffer.class );
+
+	/**
+	 * Number of rows fetched from database at a time by the streaming read
+	 */
+	protected static final int FETCH_SIZE = 1000;
+	/**
+	 * Number of rows read and saved at a time when CSV data is saved
+	 */
+	protected static final int LOAD_CHUNK_SIZE = 10000;
+	/**
+	 * Row isn't changed since it was retrieved or changes were saved
+	 */
+	protected static final int ROW_UNCHANGED = 0;
+	/**
+	 * Row is inserted
+	 */
+	protected static final int ROW_INSERTED = 1;
+	/**
+	 * Row is updated
+	 */
+	protected static final int ROW_UPDATED = 2;
+	/**
+	 * SQL state of the cancelled operation
+	 */
+	protected static final String CANCELLED_STATE = "57014";
+
+	private boolean bIsStoredProcedure = false;
+	private SQLQuery delete;
+	private SQLQuery insert;
+	private ArrayList< String > returnValue;
+	private SQLQuery sp;
+	private String sPKCol;
+	private SQLQuery update;
+	private Map< BitSet, SQLQuery > updateQueries;
+	private String sCommand;
+	private List< Serializable > args;
+	private boolean bKeysetPaging;
+	private int iPageSize;
+	private int iPage = 1;
+	private List< Object > pageKeys;
+	private volatile Statement runningStmt;
+	private volatile CompletableFuture< ? > pendingTask;
+	private AbstractDataBuffer owner;
+	private UnitOfWork unitOfWork;
+	private BatchListener batchListener;
+	private TypeCodec[] codecs;
+
+	protected DataBufferDesc desc;
+	protected DBConnection dbConn;
+
+	/**
+	 * @param desc
+	 *            the data buffer description
+	 * @param ds
+	 *            the data source
+	 *
+	 * @throws Exception
+	 */
+	public AbstractDataBuffer( DataBufferDesc desc, DataSource ds ) throws Exception {
+		this.desc = desc;
+		dbConn = ( DBConnection )ds;
+		returnValue = new ArrayList< String >( );
+		sPKCol = desc.getTable( ).getPKcol( );
+		sCommand = desc.getTable( ).getQuery( );
+		iPageSize = desc.getTable( ).getPageSize( );
+		bKeysetPaging = iPageSize > 0 && Table.PAGING_KEYSET.equals( desc.getTable( ).getPaging( ) );
+		pageKeys = new ArrayList< >( );
+		updateQueries = new HashMap< >( );
+		Column[] cols = desc.getColumns( );
+		codecs = new TypeCodec[ cols.length ];
+		for( Column col : cols ) {
+			codecs[ col.getColNum( ) ] = TypeCodec.get( col.getType( ) );
+		}
+		setSQL( );
+	}
+
+	/**
+	 * Returns number of rows in the storage.
+	 *
+	 * @return the number of rows
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract int size( ) throws SQLException;
+
+	/**
+	 * Returns specified cell value.
+	 *
+	 * @param iRow
+	 *            the row index
+	 * @param iCol
+	 *            the column index
+	 *
+	 * @return the value or null
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract Object getObject( int iRow, int iCol ) throws SQLException;
+
+	/**
+	 * Returns specified cell original value, i.e. value before it was changed
+	 * and not saved yet. By default storage doesn't keep original values and
+	 * returns current value.
+	 *
+	 * @param iRow
+	 *            the row index
+	 * @param iCol
+	 *            the column index
+	 *
+	 * @return the value or null
+	 *
+	 * @throws SQLException
+	 */
+	protected Object getOriginalObject( int iRow, int iCol ) throws SQLException {
+		return( getObject( iRow, iCol ) );
+	}
+
+	/**
+	 * Returns current row index.
+	 *
+	 * @return the current row index or 0 if there is no current row
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract int getCurrentRow( ) throws SQLException;
+
+	/**
+	 * Sets specified row as current row in data buffer.
+	 *
+	 * @param iRow
+	 *            the row index to set
+	 *
+	 * @return true if success and false if failure
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract boolean setRow( int iRow ) throws SQLException;
+
+	/**
+	 * Moves to the insert row, the row to be inserted is built by
+	 * {@link #updateObject(int, Object)} and added by {@link #insertRow()}.
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void moveToInsertRow( ) throws SQLException;
+
+	/**
+	 * Sets insert row column value.
+	 *
+	 * @param iCol
+	 *            the column index
+	 * @param value
+	 *            the value to set or null
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void updateObject( int iCol, Object value ) throws SQLException;
+
+	/**
+	 * Appends the insert row to the storage and makes it current row.
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void insertRow( ) throws SQLException;
+
+	/**
+	 * Creates new empty data buffer with the same description and data
+	 * source.
+	 *
+	 * @return the data buffer
+	 *
+	 * @throws Exception
+	 */
+	protected abstract AbstractDataBuffer newInstance( ) throws Exception;
+
+	/**
+	 * Sets specified cell value.
+	 *
+	 * @param iRow
+	 *            the row index
+	 * @param iCol
+	 *            the column index
+	 * @param value
+	 *            the value to set or null
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void setObject( int iRow, int iCol, Object value ) throws SQLException;
+
+	/**
+	 * Removes specified row, the row is kept as deleted until changes are
+	 * saved.
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void removeRow( int iRow ) throws SQLException;
+
+	/**
+	 * Returns row change state.
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @return the row state {@link #ROW_UNCHANGED}, {@link #ROW_INSERTED} or
+	 *         {@link #ROW_UPDATED}
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract int getRowState( int iRow ) throws SQLException;
+
+	/**
+	 * Returns indexes of the updated columns of the updated row.
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @return the updated column indexes
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract BitSet getUpdatedColumns( int iRow ) throws SQLException;
+
+	/**
+	 * Returns original values of the deleted rows, rows inserted and deleted
+	 * after the last save aren't returned.
+	 *
+	 * @return the deleted rows values, value index is column index - 1
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract List< Object[] > getDeletedRows( ) throws SQLException;
+
+	/**
+	 * Marks all rows as unchanged, deleted rows are discarded.
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void acceptChanges( ) throws SQLException;
+
+	/**
+	 * Removes all rows including deleted ones.
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void clear( ) throws SQLException;
+
+	/**
+	 * Populates data buffer with rows returned by the current retrieve query
+	 * {@link #getCommand()} with current arguments {@link #getArgs()}, the
+	 * number of rows should be limited by {@link #getMaxRows()}.
+	 *
+	 * @return the row count
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract int populate( ) throws SQLException;
+
+	/**
+	 * Binds specified cell value to the statement parameter.
+	 *
+	 * @param stmt
+	 *            the statement
+	 * @param iParm
+	 *            the parameter index
+	 * @param iRow
+	 *            the row index
+	 * @param iCol
+	 *            the column index
+	 *
+	 * @throws SQLException
+	 */
+	protected void bind( PreparedStatement stmt, int iParm, int iRow, int iCol ) throws SQLException {
+		codecs[ iCol - 1 ].bind( stmt, iParm, getObject( iRow, iCol ) );
+	}
+
+	/**
+	 * Writes specified cell original value as json.
+	 *
+	 * @param enc
+	 *            the json encoder
+	 * @param iRow
+	 *            the row index
+	 * @param col
+	 *            the column
+	 *
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	protected void writeValue( JsonEncoder enc, int iRow, Column col ) throws SQLException, IOException {
+		enc.value( getOriginalObject( iRow, col.getColNum( ) + 1 ), col.getType( ) );
+	}
+
+	/**
+	 * Returns current retrieve query. In keyset paging mode the query is
+	 * wrapped to select the current page rows ordered by the key column.
+	 *
+	 * @return the retrieve query
+	 */
+	protected String getCommand( ) {
+		if( !bKeysetPaging ) {
+			return( sCommand );
+		}
+		return( 
+			"SELECT * FROM ( " + sCommand + " ) kp" + 
+			( pageKeys.isEmpty( ) ? "" : " WHERE kp." + sPKCol + " > ?" ) + 
+			" ORDER BY kp." + sPKCol 
+		);
+	}
+
+	/**
+	 * Returns current retrieval arguments. In keyset paging mode the last key
+	 * of the previous page is appended.
+	 *
+	 * @return the retrieval arguments or null
+	 */
+	protected List< Serializable > getArgs( ) {
+		if( !bKeysetPaging || pageKeys.isEmpty( ) ) {
+			return( args );
+		}
+		List< Serializable > pageArgs = args == null ? new ArrayList< >( ) : new ArrayList< >( args );
+		pageArgs.add( ( Serializable )pageKeys.get( pageKeys.size( ) - 1 ) );
+		return( pageArgs );
+	}
+
+	/**
+	 * Returns maximum number of rows to retrieve.
+	 *
+	 * @return the page size in keyset paging mode, otherwise 0 - no limit
+	 */
+	protected int getMaxRows( ) {
+		return( bKeysetPaging ? iPageSize : 0 );
+	}
+
+	/**
+	 * Returns true if keyset paging mode is on.
+	 *
+	 * @return true if keyset paging mode is on
+	 */
+	protected boolean isKeysetPaging( ) {
+		return( bKeysetPaging );
+	}
+
+	/**
+	 * Returns connection, connection acquisition wait is recorded to the
+	 * metrics.
+	 *
+	 * @param iAction
+	 *            the action (retrieve, insert, update, delete)
+	 *
+	 * @return the database connection
+	 *
+	 * @throws SQLException
+	 */
+	protected Connection getConnection( int iAction ) throws SQLException {
+		UnitOfWork uow = getUnitOfWork( );
+		if( uow != null ) {
+			return( uow.getConnection( ) );
+		}
+		return( dbConn.getConnection( iAction, getDataBufferName( ) ) );
+	}
+
+	/**
+	 * Returns unit of work the data buffer is bound to.
+	 *
+	 * @return the unit of work or null
+	 */
+	UnitOfWork getUnitOfWork( ) {
+		return( ( owner == null ) ? unitOfWork : owner.unitOfWork );
+	}
+
+	/**
+	 * Binds data buffer to the unit of work.
+	 *
+	 * @param unitOfWork
+	 *            the unit of work or null to unbind
+	 */
+	void setUnitOfWork( UnitOfWork unitOfWork ) {
+		this.unitOfWork = unitOfWork;
+	}
+
+	/**
+	 * Returns batch listener, the data buffer copy uses listener of the data
+	 * buffer it was created by.
+	 *
+	 * @return the batch listener or null
+	 */
+	BatchListener getBatchListener( ) {
+		return( ( owner == null ) ? batchListener : owner.batchListener );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#setBatchListener(org.homedns.mkh.databuffer.api.BatchListener)
+	 */
+	@Override
+	public void setBatchListener( BatchListener listener ) {
+		batchListener = listener;
+	}
+
+	/**
+	 * Returns data buffer data source.
+	 *
+	 * @return the data source
+	 */
+	DBConnection getDBConnection( ) {
+		return( dbConn );
+	}
+
+	/**
+	 * Records elapsed time to the metrics timer.
+	 *
+	 * @param sMetric
+	 *            the timer name
+	 * @param lStart
+	 *            the start time, {@link System#nanoTime()}
+	 */
+	protected void record( String sMetric, long lStart ) {
+		dbConn.getMetrics( ).record( sMetric, getDataBufferName( ), dbConn.getName( ), System.nanoTime( ) - lStart );
+	}
+
+	/**
+	 * Adds value to the metrics counter.
+	 *
+	 * @param sMetric
+	 *            the counter name
+	 * @param lValue
+	 *            the value to add
+	 */
+	protected void count( String sMetric, long lValue ) {
+		dbConn.getMetrics( ).add( sMetric, getDataBufferName( ), dbConn.getName( ), lValue );
+	}
+
+	/**
+	 * Sets statement in execution, it's cancelled by {@link #cancel()}. The 
+	 * statement must be reset to null when it's executed.
+	 *
+	 * @param stmt
+	 *            the statement or null
+	 *
+	 * @throws SQLException if the asynchronous operation is already cancelled
+	 */
+	protected void setStatement( Statement stmt ) throws SQLException {
+		AbstractDataBuffer db = ( owner == null ) ? this : owner;
+		db.runningStmt = stmt;
+		CompletableFuture< ? > task = db.pendingTask;
+		if( stmt != null && task != null && task.isCancelled( ) ) {
+			db.runningStmt = null;
+			throw new SQLException( getDataBufferName( ) + ": operation is cancelled", CANCELLED_STATE );
+		}
+	}
+
+	/**
+	 * Binds current retrieval arguments to the statement.
+	 *
+	 * @param stmt
+	 *            the statement
+	 *
+	 * @throws SQLException
+	 */
+	protected void bindArgs( PreparedStatement stmt ) throws SQLException {
+		bindArgs( stmt, getArgs( ) );
+	}
+
+	/**
+	 * Binds retrieval arguments to the statement.
+	 *
+	 * @param stmt
+	 *            the statement
+	 * @param args
+	 *            the retrieval arguments or null
+	 *
+	 * @throws SQLException
+	 */
+	private void bindArgs( PreparedStatement stmt, List< Serializable > args ) throws SQLException {
+		if( args == null ) {
+			return;
+		}
+		int iItem = 1;
+		for( Object arg : args ) {
+			LOG.debug( "retrieval argument " + iItem + ": " + arg );
+			TypeCodec codec = TypeCodec.of( arg );
+			if( codec == null ) {
+				stmt.setObject( iItem, arg );
+			} else {
+				codec.bind( stmt, iItem, arg );
+			}
+			iItem++;
+		}
+	}
+
+	/**
+	 * Executes query - stored procedure for the specified rows one by one
+	 * using single connection and statement. To be sure to define right 
+	 * format in data buffer description file to call stored procedure 
+	 * (property 'updateTableName'). Return value contains the last row result.
+	 *
+	 * @param iQueryType
+	 *            the sql modification query type
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#INSERT},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#UPDATE},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#DELETE}
+	 * @param query
+	 *            the sql query object
+	 * @param iFirstRow
+	 *            the first row index
+	 * @param iLastRow
+	 *            the last row index
+	 *
+	 * @throws SQLException
+	 */
+	private void execute( int iQueryType, SQLQuery query, int iFirstRow, int iLastRow ) throws SQLException {
+		String sQuery = "";
+		try(
+			Connection conn = getConnection( iQueryType );
+			CallableStatement stmt = conn.prepareCall( query.getQuery( ) )
+		) {
+			setStatement( stmt );
+			boolean bAutoCommit = begin( conn );
+			try {
+				for( int iRow = iFirstRow; iRow <= iLastRow; iRow++ ) {
+					stmt.registerOutParameter( 1, Types.VARCHAR );
+					stmt.setInt( 2, iQueryType );
+					int iItem = 3;
+					for( int iCol : query.getParmIndex( ) ) {
+						bind( stmt, iItem, iRow, iCol );
+						iItem++;
+					}
+					sQuery = stmt.toString( );
+					LOG.debug( "executing query: " + sQuery );
+					stmt.execute( );
+					returnValue.clear( );
+					returnValue.add( stmt.getString( 1 ) );
+					if( stmt.getWarnings( ) != null ) {
+						String sWarn = stmt.getWarnings( ).getMessage( );
+						returnValue.add( sWarn );
+						LOG.debug( "query message: " + sWarn );
+						stmt.clearWarnings( );
+					}
+					commit( conn, iRow - iFirstRow + 1 );
+				}
+				conn.commit( );
+			}
+			catch( SQLException e ) {
+				conn.rollback( );
+				throw e;
+			}
+			finally {
+				end( conn, bAutoCommit );
+			}
+		}
+		catch( SQLException e ) {
+			throw new SQLException( sQuery, e );
+		}
+		finally {
+			setStatement( null );
+		}
+	}
+
+	/**
+	 * Executes query (insert, delete, update) for the specified rows one by
+	 * one using single connection and statement. Return value contains the 
+	 * last row result.
+	 *
+	 * @param query
+	 *            the sql query object
+	 * @param iFirstRow
+	 *            the first row index
+	 * @param iLastRow
+	 *            the last row index
+	 *
+	 * @throws SQLException
+	 */
+	private void execute( SQLQuery query, int iFirstRow, int iLastRow ) throws SQLException {
+		String sQuery = "";
+		int iOperation = query.getOperation( );
+		try(
+			Connection conn = getConnection( iOperation );
+			PreparedStatement stmt = conn.prepareStatement(
+				query.getQuery( ), Statement.RETURN_GENERATED_KEYS
+			);
+		) {
+			setStatement( stmt );
+			boolean bAutoCommit = begin( conn );
+			try {
+				for( int iRow = iFirstRow; iRow <= iLastRow; iRow++ ) {
+					int iItem = 1;
+					for( int iCol : query.getParmIndex( ) ) {
+						bind( stmt, iItem, iRow, iCol );
+						iItem++;
+					}
+					sQuery = stmt.toString( );
+					LOG.debug( "executing query: " + sQuery );
+					stmt.executeUpdate( );
+					returnValue.clear( );
+					if( iOperation == INSERT ) {
+						try( ResultSet ids = stmt.getGeneratedKeys( ) ) {
+							while( ids.next( ) ) {
+								returnValue.add( ids.getString( sPKCol ) );
+							}
+						}
+					} else if( iOperation == UPDATE ) {
+						Object pk = getObject( iRow, findColumn( sPKCol ) );
+						returnValue.add( pk == null ? null : pk.toString( ) );
+					}
+					commit( conn, iRow - iFirstRow + 1 );
+				}
+				conn.commit( );
+			}
+			catch( SQLException e ) {
+				conn.rollback( );
+				throw e;
+			}
+			finally {
+				end( conn, bAutoCommit );
+			}
+		}
+		catch( SQLException e ) {
+			throw new SQLException( sQuery, e );
+		}
+		finally {
+			setStatement( null );
+		}
+	}
+
+	/**
+	 * Begins transaction.
+	 *
+	 * @param conn
+	 *            the connection
+	 *
+	 * @return the connection original auto commit mode
+	 *
+	 * @throws SQLException
+	 */
+	private boolean begin( Connection conn ) throws SQLException {
+		boolean bAutoCommit = conn.getAutoCommit( );
+		if( bAutoCommit ) {
+			conn.setAutoCommit( false );
+		}
+		return( bAutoCommit );
+	}
+
+	/**
+	 * Commits transaction if the number of executed rows reaches commit
+	 * interval {@link org.homedns.mkh.databuffer.Table#getCommitInterval()}.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param iExecuted
+	 *            the number of executed rows
+	 *
+	 * @throws SQLException
+	 */
+	private void commit( Connection conn, int iExecuted ) throws SQLException {
+		int iCommitInterval = desc.getTable( ).getCommitInterval( );
+		if( iCommitInterval > 0 && iExecuted % iCommitInterval == 0 ) {
+			conn.commit( );
+		}
+	}
+
+	/**
+	 * Ends transaction, restores connection auto commit mode.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param bAutoCommit
+	 *            the original auto commit mode
+	 *
+	 * @throws SQLException
+	 */
+	private void end( Connection conn, boolean bAutoCommit ) throws SQLException {
+		if( bAutoCommit ) {
+			conn.setAutoCommit( true );
+		}
+	}
+
+	/**
+	 * Executes batch of sql queries (insert, delete, update) or stored 
+	 * procedure. To be sure to define right format in data buffer description
+	 * file to call stored procedure (property 'updateTableName'). Postgresql 
+	 * feature stored procedure must return void otherwise 
+	 * java.lang.NullPointerException at org.postgresql.core.v3.SimpleParameterList.getV3Length
+	 * raises. Rows are sent by {@link org.homedns.mkh.databuffer.Table#getBatchSize()}
+	 * rows at a time, if commit interval 
+	 * {@link org.homedns.mkh.databuffer.Table#getCommitInterval()} is set rows
+	 * are committed at the first batch boundary after the interval is reached,
+	 * rows committed before failure stay saved.
+	 *
+	 * @param iQueryType
+	 *            the sql modification query type
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#INSERT},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#UPDATE},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#DELETE}
+	 * @param query
+	 *            the sql query object
+	 *
+	 * @throws SQLException
+	 */
+	private void executeBatch( int iQueryType, SQLQuery query ) throws SQLException {
+		String sQuery = "";
+		int iBatchSize = desc.getTable( ).getBatchSize( );
+		if( iBatchSize <= 0 ) {
+			iBatchSize = Integer.MAX_VALUE;
+		}
+		int iCommitInterval = desc.getTable( ).getCommitInterval( );
+		BatchListener listener = getBatchListener( );
+		int iCommitted = 0;
+		try(
+			Connection conn = getConnection( iQueryType );
+			PreparedStatement stmt = prepare( conn, query );
+		) {
+			setStatement( stmt );
+			boolean bAutoCommit = ( iCommitInterval > 0 ) ? begin( conn ) : false;
+			try {
+				int iRowCount = size( );
+				int iBatch = 0;
+				for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+					int iItem = 1;
+					if( query == sp ) {
+						stmt.setInt( iItem++, iQueryType );
+					}
+					for( int iCol : query.getParmIndex( ) ) {
+						bind( stmt, iItem, iRow, iCol );
+						iItem++;
+					}
+					stmt.addBatch( );
+					if( ++iBatch < iBatchSize && iRow < iRowCount ) {
+						continue;
+					}
+					sQuery = stmt.toString( );
+					LOG.debug( "executing query: " + sQuery );
+					int iAffected = getAffected( stmt.executeBatch( ) );
+					iBatch = 0;
+					if( iCommitInterval <= 0 ) {
+						iCommitted = iRow;
+					} else if( iRow - iCommitted >= iCommitInterval || iRow == iRowCount ) {
+						conn.commit( );
+						iCommitted = iRow;
+					}
+					if( listener != null ) {
+						listener.batchSaved( getDataBufferName( ), iRow, iRowCount, iAffected, iCommitted );
+					}
+				}
+			}
+			catch( SQLException e ) {
+				if( iCommitInterval > 0 ) {
+					conn.rollback( );
+				}
+				throw e;
+			}
+			finally {
+				end( conn, bAutoCommit );
+			}
+		}
+		catch( SQLException e ) {
+			SQLException ne = e.getNextException( );
+			String sErrMsg = "";
+			if( ne != null ) {
+				sErrMsg = ( ne.getMessage( ) != null ) ? ne.getMessage( ) : sErrMsg;
+			}
+			throw new SQLException( 
+				sQuery + ": detailed message: " + sErrMsg + ", rows committed: " + iCommitted, e 
+			);
+		}
+		finally {
+			setStatement( null );
+		}
+	}
+
+	/**
+	 * Prepares statement of the modification query, stored procedure is 
+	 * prepared as callable statement.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param query
+	 *            the sql query object
+	 *
+	 * @return the statement
+	 *
+	 * @throws SQLException
+	 */
+	private PreparedStatement prepare( Connection conn, SQLQuery query ) throws SQLException {
+		if( query == sp ) {
+			return( conn.prepareCall( query.getQuery( ) ) );
+		}
+		return( conn.prepareStatement( query.getQuery( ) ) );
+	}
+
+	/**
+	 * Returns number of database rows affected by the executed batch.
+	 *
+	 * @param aiCounts
+	 *            the batch update counts
+	 *
+	 * @return the number of affected rows or -1 if driver doesn't report it
+	 */
+	private static int getAffected( int[] aiCounts ) {
+		int iAffected = 0;
+		for( int iCount : aiCounts ) {
+			if( iCount < 0 ) {
+				return( -1 );
+			}
+			iAffected += iCount;
+		}
+		return( iAffected );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#fetch(java.util.List, org.homedns.mkh.databuffer.api.RowConsumer)
+	 */
+	@Override
+	public int fetch( List< Serializable > args, RowConsumer consumer ) throws Exception {
+		return( fetch( args, null, consumer ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#fetch(java.util.List, java.lang.String, org.homedns.mkh.databuffer.api.RowConsumer)
+	 */
+	@Override
+	public int fetch( List< Serializable > args, String sAddWhere, RowConsumer consumer ) throws Exception {
+		setCommand( sAddWhere );
+		this.args = args;
+		int iRowCount = 0;
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.RETRIEVE );
+		LOG.debug( getDataBufferName( ) + ": fetch: " + sCommand );
+		try( Connection conn = getConnection( RETRIEVE ) ) {
+			boolean bAutoCommit = conn.getAutoCommit( );
+			if( bAutoCommit ) {
+				// some drivers (postgresql) use cursor to fetch rows only out of auto commit mode
+				conn.setAutoCommit( false );
+			}
+			try(
+				PreparedStatement stmt = conn.prepareStatement( 
+					sCommand, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY 
+				)
+			) {
+				setStatement( stmt );
+				stmt.setFetchSize( FETCH_SIZE );
+				bindArgs( stmt, args );
+				try( ResultSet rs = stmt.executeQuery( ) ) {
+					ResultSetRow row = new ResultSetRow( rs, desc );
+					while( rs.next( ) ) {
+						consumer.accept( row );
+						iRowCount++;
+					}
+				}
+			}
+			finally {
+				setStatement( null );
+				if( bAutoCommit ) {
+					conn.rollback( );
+					conn.setAutoCommit( true );
+				}
+			}
+		}
+		LOG.debug( getDataBufferName( ) + ": fetched rows: " + iRowCount );
+		Events.commit( event, getDataBufferName( ), "fetch", sCommand, iRowCount, 0 );
+		record( Metrics.RETRIEVE, lStart );
+		count( Metrics.ROWS_FETCHED, iRowCount );
+		return( iRowCount );
+	}
+
+	/**
+	 * Returns column index by column name.
+	 *
+	 * @param sColName
+	 *            the column name
+	 *
+	 * @return the column index
+	 */
+	protected int findColumn( String sColName ) {
+		return( desc.getColumn( sColName ).getColNum( ) + 1 );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getData()
+	 */
+	@Override
+	public String[][] getData( ) throws SQLException {
+		return( getData( Arrays.asList( desc.getColumns( ) ) ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getData(java.util.List)
+	 */
+	@Override
+	public String[][] getData( List< Column > cols ) throws SQLException {
+		int iRowCount = size( );
+		String[][] asData = new String[ iRowCount ][ cols.size( ) ];
+		for( int iRow = 0; iRow < iRowCount; iRow++ ) {
+			int iCol = 0;
+			for( Column col : cols ) {
+				asData[ iRow ][ iCol ] = codecs[ col.getColNum( ) ].format( 
+					getObject( iRow + 1, col.getColNum( ) + 1 ) 
+				);
+				iCol++;
+			}
+		}
+		return( asData );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getData(java.lang.String[])
+	 */
+	@Override
+	public String[][] getData( String[] asColName ) throws SQLException {
+		List< Column > cols = new ArrayList< Column >( );
+		for( String sColName : asColName ) {
+			cols.add( desc.getColumn( sColName ) );
+		}
+		return( getData( cols ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getDataAsList()
+	 */
+	@Override
+	public List< List< Serializable > > getDataAsList( ) throws SQLException {
+		return( getDataAsList( Arrays.asList( desc.getColumns( ) ) ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getDataAsList(java.util.List)
+	 */
+	@Override
+	public List< List< Serializable > > getDataAsList( List< Column > cols ) throws SQLException {
+		int iRowCount = size( );
+		List< List< Serializable > > list = new ArrayList< List< Serializable > >( iRowCount );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			ArrayList< Serializable > row = new ArrayList< Serializable >( cols.size( ) );
+			for( Column col : cols ) {
+				row.add( ( Serializable )getObject( iRow, col.getColNum( ) + 1 ) );
+			}
+			list.add( row );
+		}
+		return( list );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getDataAsList(java.lang.String[])
+	 */
+	@Override
+	public List< List< Serializable > > getDataAsList( String[] asColNames ) throws SQLException {
+		List< Column > cols = new ArrayList< Column >( );
+		for( String sColName : asColNames ) {
+			cols.add( desc.getColumn( sColName ) );
+		}
+		return( getDataAsList( cols ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getDataBufferName()
+	 */
+	@Override
+	public String getDataBufferName( ) {
+		return( desc.getName( ) );
+	}
+
+	/**
+	 * Parses input string value to the timestamp using setting date/time format
+	 *
+	 * @param sValue the input value
+	 *
+	 * @return the timestamp
+	 *
+	 * @throws ParseException
+	 */
+	protected Timestamp getDateTime( String sValue ) throws ParseException {
+		return( ( Timestamp )TypeCodec.get( Type.TIMESTAMP ).parse( sValue ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getDescription()
+	 */
+	@Override
+	public DataBufferDesc getDescription( ) {
+		return( desc );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getDescriptionAsJson()
+	 */
+	@Override
+	public String getDescriptionAsJson( ) {
+		return( Util.getGson( ).toJson( desc ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getJson()
+	 */
+	@Override
+	public String getJson( ) throws SQLException {
+		StringWriter writer = new StringWriter( );
+		try {
+			writeJson( writer );
+		}
+		catch( IOException e ) {
+			throw new SQLException( e );
+		}
+		LOG.debug( writer );
+		return( writer.toString( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getPage()
+	 */
+	@Override
+	public int getPage( ) {
+		return( iPage );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getPageSize()
+	 */
+	@Override
+	public int getPageSize( ) {
+		return( bKeysetPaging ? iPageSize : 0 );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#writeJson(java.io.Writer)
+	 */
+	@Override
+	public void writeJson( Writer writer ) throws SQLException, IOException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SERIALIZE );
+		JsonEncoder enc = new JsonEncoder( writer );
+		Column[] cols = desc.getColumns( );
+		int iRowCount = size( );
+		enc.beginArray( );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			enc.beginArray( );
+			for( Column col : cols ) {
+				writeValue( enc, iRow, col );
+			}
+			enc.endArray( );
+		}
+		enc.endArray( );
+		enc.flush( );
+		Events.commit( event, getDataBufferName( ), "writeJson", null, iRowCount, enc.getWritten( ) );
+		record( Metrics.JSON, lStart );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#writeJson(java.io.OutputStream)
+	 */
+	@Override
+	public void writeJson( OutputStream out ) throws SQLException, IOException {
+		writeJson( new OutputStreamWriter( out, StandardCharsets.UTF_8 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getBinary()
+	 */
+	@Override
+	public byte[] getBinary( ) throws SQLException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		try {
+			writeBinary( out );
+		}
+		catch( IOException e ) {
+			throw new SQLException( e );
+		}
+		return( out.toByteArray( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#writeBinary(java.io.OutputStream)
+	 */
+	@Override
+	public void writeBinary( OutputStream out ) throws SQLException, IOException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SERIALIZE );
+		Column[] cols = desc.getColumns( );
+		BinaryEncoder enc = new BinaryEncoder( out, cols );
+		enc.header( );
+		Object[] values = new Object[ cols.length ];
+		int iRowCount = size( );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			for( Column col : cols ) {
+				values[ col.getColNum( ) ] = getOriginalObject( iRow, col.getColNum( ) + 1 );
+			}
+			enc.row( values );
+		}
+		enc.end( );
+		Events.commit( event, getDataBufferName( ), "writeBinary", null, iRowCount, enc.getWritten( ) );
+		record( Metrics.BINARY, lStart );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getCsv()
+	 */
+	@Override
+	public String getCsv( ) throws SQLException {
+		StringWriter writer = new StringWriter( );
+		try {
+			writeCsv( writer );
+		}
+		catch( IOException e ) {
+			throw new SQLException( e );
+		}
+		return( writer.toString( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#writeCsv(java.io.Writer)
+	 */
+	@Override
+	public void writeCsv( Writer writer ) throws SQLException, IOException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SERIALIZE );
+		Column[] cols = desc.getColumns( );
+		CsvEncoder enc = new CsvEncoder( writer, cols );
+		enc.header( );
+		Object[] values = new Object[ cols.length ];
+		int iRowCount = size( );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			for( Column col : cols ) {
+				values[ col.getColNum( ) ] = getOriginalObject( iRow, col.getColNum( ) + 1 );
+			}
+			enc.row( values );
+		}
+		enc.flush( );
+		Events.commit( event, getDataBufferName( ), "writeCsv", null, iRowCount, enc.getWritten( ) );
+		record( Metrics.CSV, lStart );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getXml()
+	 */
+	@Override
+	public String getXml( ) throws SQLException, IOException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SERIALIZE );
+		StringWriter writer = new StringWriter( );
+		int iRowCount;
+		try {
+			iRowCount = writeXml( XmlEncoder.createWriter( writer ) );
+		}
+		catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+		String sXml = writer.toString( );
+		Events.commit( event, getDataBufferName( ), "getXml", null, iRowCount, sXml.length( ) );
+		record( Metrics.XML, lStart );
+		return( sXml );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#writeXml(java.io.OutputStream)
+	 */
+	@Override
+	public void writeXml( OutputStream out ) throws SQLException, IOException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SERIALIZE );
+		int iRowCount;
+		try {
+			iRowCount = writeXml( XmlEncoder.createWriter( out ) );
+		}
+		catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+		Events.commit( event, getDataBufferName( ), "writeXml", null, iRowCount, 0 );
+		record( Metrics.XML, lStart );
+	}
+
+	/**
+	 * Writes data buffer rows in WebRowSet xml format. Unchanged and updated
+	 * rows are written with original values, updated columns are followed by
+	 * current values, inserted rows are written with current values and
+	 * deleted rows are written after all others.
+	 * 
+	 * @param writer
+	 *            the xml writer
+	 * 
+	 * @return the written rows count
+	 * 
+	 * @throws SQLException
+	 * @throws XMLStreamException
+	 */
+	private int writeXml( XMLStreamWriter writer ) throws SQLException, XMLStreamException {
+		XmlEncoder enc = new XmlEncoder( writer, desc );
+		enc.header( desc, getCommand( ), findColumn( sPKCol ), getMaxRows( ) );
+		int iColCount = desc.getColumns( ).length;
+		Object[] values = new Object[ iColCount ];
+		Object[] updates = new Object[ iColCount ];
+		int iRowCount = size( );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			int iState = getRowState( iRow );
+			for( int iCol = 1; iCol <= iColCount; iCol++ ) {
+				values[ iCol - 1 ] = iState == ROW_INSERTED ? getObject( iRow, iCol ) : getOriginalObject( iRow, iCol );
+			}
+			if( iState == ROW_INSERTED ) {
+				enc.row( XmlEncoder.INSERT_ROW, values, null, null );
+			} else if( iState == ROW_UPDATED ) {
+				for( int iCol = 1; iCol <= iColCount; iCol++ ) {
+					updates[ iCol - 1 ] = getObject( iRow, iCol );
+				}
+				enc.row( XmlEncoder.CURRENT_ROW, values, getUpdatedColumns( iRow ), updates );
+			} else {
+				enc.row( XmlEncoder.CURRENT_ROW, values, null, null );
+			}
+		}
+		List< Object[] > deletedRows = getDeletedRows( );
+		for( Object[] deleted : deletedRows ) {
+			enc.row( XmlEncoder.DELETE_ROW, deleted, null, null );
+		}
+		enc.finish( );
+		return( iRowCount + deletedRows.size( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getRow(int)
+	 */
+	@Override
+	public DataRow getRow( int iRow ) throws SQLException {
+		if( iRow < 0 || iRow >= size( ) ) {
+			throw new SQLException( "Invalid row index: " + iRow );
+		}
+		return( new BufferRow( iRow + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getRowData(int)
+	 */
+	@Override
+	public Serializable[] getRowData( int iRow ) throws SQLException {
+		return( getRow( iRow ).toOriginalArray( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getReturnValue()
+	 */
+	@Override
+	public ArrayList< String > getReturnValue( ) {
+		return( returnValue );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#insertData(java.util.List)
+	 */
+	@Override
+	public void insertData( List< List< Serializable > > data ) throws SQLException {
+		for( List< Serializable > row : data ) {
+			insertDataRow( row );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#insertData(java.io.Serializable[][])
+	 */
+	@Override
+	public void insertData( Serializable[][] data ) throws SQLException {
+		for( Serializable[] row : data ) {
+			insertDataRow( Arrays.asList( row ) );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#insertDataRow(java.util.List)
+	 */
+	@Override
+	public void insertDataRow( List< Serializable > row ) throws SQLException {
+		if( row.size( ) > desc.getColumns( ).length ) {
+			throw new IllegalArgumentException( "Exceeds available columns count" );
+		}
+		moveToInsertRow( );
+		int iItem = 1;
+		for( Object value : row ) {
+			updateObject( iItem, convert( iItem, value ) );
+			iItem++;
+		}
+		insertRow( );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#updateValue(int, java.lang.String, java.io.Serializable)
+	 */
+	@Override
+	public void updateValue( int iRow, String sColName, Serializable value ) throws SQLException {
+		if( iRow < 0 || iRow >= size( ) ) {
+			throw new SQLException( "Invalid row index: " + iRow );
+		}
+		int iCol = findColumn( sColName );
+		setObject( iRow + 1, iCol, convert( iCol, value ) );
+	}
+
+	/**
+	 * Converts value to the column type by the column type codec, text is 
+	 * parsed and dates are converted to the timestamps.
+	 *
+	 * @param iCol
+	 *            the column index
+	 * @param value
+	 *            the value
+	 *
+	 * @return the converted value
+	 *
+	 * @throws SQLException
+	 */
+	private Object convert( int iCol, Object value ) throws SQLException {
+		try {
+			return( codecs[ iCol - 1 ].convert( value ) );
+		}
+		catch( ParseException e ) {
+			throw new SQLException( desc.getColumns( )[ iCol - 1 ].getName( ) + ": " + e.getMessage( ), e );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#deleteRow(int)
+	 */
+	@Override
+	public void deleteRow( int iRow ) throws SQLException {
+		if( iRow < 0 || iRow >= size( ) ) {
+			throw new SQLException( "Invalid row index: " + iRow );
+		}
+		removeRow( iRow + 1 );
+	}
+
+	/**
+	 * Modifies original data buffer retrieve query. The query is parsed once 
+	 * per description and the modified queries are taken from the description
+	 * queries cache.
+	 *
+	 * @param sAddWhere
+	 *            the addition for the WHERE clause
+	 *
+	 * @return the result query.
+	 *
+	 * @throws StandardException
+	 */
+	private String modifyQuery( String sAddWhere ) throws StandardException {
+		return( desc.getQueryCache( ).modifyQuery( sAddWhere ) );
+	}
+
+	/**
+	 * Fetches next page in keyset paging mode, the page starts after the last
+	 * key of the current page. If the next page is empty the current page is
+	 * fetched again.
+	 * 
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#nextPage()
+	 */
+	@Override
+	public boolean nextPage( ) throws SQLException {
+		if( !bKeysetPaging || size( ) < iPageSize ) {
+			return( false );
+		}
+		pageKeys.add( getObject( size( ), findColumn( sPKCol ) ) );
+		if( populate( ) == 0 ) {
+			pageKeys.remove( pageKeys.size( ) - 1 );
+			populate( );
+			return( false );
+		}
+		iPage++;
+		return( true );
+	}
+
+	/**
+	 * Fetches previous page in keyset paging mode.
+	 * 
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#previousPage()
+	 */
+	@Override
+	public boolean previousPage( ) throws SQLException {
+		if( !bKeysetPaging || pageKeys.isEmpty( ) ) {
+			return( false );
+		}
+		pageKeys.remove( pageKeys.size( ) - 1 );
+		populate( );
+		iPage--;
+		return( true );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#putJson(java.lang.String)
+	 */
+	@Override
+	public void putJson( String sJsonData ) throws SQLException, ParseException, IOException {
+		LOG.debug( sJsonData );
+		try( StringReader reader = new StringReader( sJsonData ) ) {
+			putJson( reader, sJsonData.length( ) );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#putJson(java.io.Reader)
+	 */
+	@Override
+	public void putJson( Reader in ) throws SQLException, ParseException, IOException {
+		putJson( in, 0 );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#putBinary(byte[])
+	 */
+	@Override
+	public void putBinary( byte[] data ) throws SQLException, IOException {
+		putBinary( new ByteArrayInputStream( data ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#putBinary(java.io.InputStream)
+	 */
+	@Override
+	public void putBinary( InputStream in ) throws SQLException, IOException {
+		Object event = Events.begin( Events.SERIALIZE );
+		Column[] cols = desc.getColumns( );
+		BinaryDecoder dec = new BinaryDecoder( in, cols );
+		Object[] values = new Object[ cols.length ];
+		int iRowCount = 0;
+		while( dec.next( values ) ) {
+			insertValues( values );
+			iRowCount++;
+		}
+		Events.commit( event, getDataBufferName( ), "putBinary", null, iRowCount, dec.getRead( ) );
+		LOG.debug( "putBinary: success, rows: " + iRowCount );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#putCsv(java.io.Reader)
+	 */
+	@Override
+	public void putCsv( Reader in ) throws SQLException, ParseException, IOException {
+		putCsv( new CsvDecoder( in, getColumns( ) ), Integer.MAX_VALUE );
+	}
+
+	/**
+	 * Adds rows from the CSV decoder.
+	 * 
+	 * @param dec
+	 *            the CSV decoder
+	 * @param iMaxRows
+	 *            the maximum number of rows to add
+	 * 
+	 * @return the number of added rows, 0 if there are no more rows
+	 * 
+	 * @throws SQLException
+	 * @throws ParseException
+	 * @throws IOException
+	 */
+	private int putCsv( CsvDecoder dec, int iMaxRows ) throws SQLException, ParseException, IOException {
+		Object event = Events.begin( Events.SERIALIZE );
+		long lRead = dec.getRead( );
+		Object[] values = new Object[ desc.getColumns( ).length ];
+		int iRowCount = 0;
+		while( iRowCount < iMaxRows && dec.next( values ) ) {
+			insertValues( values );
+			iRowCount++;
+		}
+		Events.commit( event, getDataBufferName( ), "putCsv", null, iRowCount, dec.getRead( ) - lRead );
+		LOG.debug( "putCsv: success, rows: " + iRowCount );
+		return( iRowCount );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#putXml(java.lang.String)
+	 */
+	@Override
+	public void putXml( String sXml ) throws SQLException {
+		try( StringReader reader = new StringReader( sXml ) ) {
+			readXml( XmlDecoder.createReader( reader ), sXml.length( ) );
+		}
+		catch( XMLStreamException e ) {
+			throw new SQLException( e );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#readXml(java.io.InputStream)
+	 */
+	@Override
+	public void readXml( InputStream in ) throws SQLException, IOException {
+		try {
+			readXml( XmlDecoder.createReader( in ), 0 );
+		}
+		catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Replaces data buffer rows with the rows from the xml reader. Current and
+	 * deleted rows are loaded as unchanged, then updates, deletions and 
+	 * insertions are applied as not saved changes.
+	 * 
+	 * @param reader
+	 *            the xml reader
+	 * @param lSize
+	 *            the xml size in characters or 0 if it's unknown
+	 * 
+	 * @throws SQLException
+	 * @throws XMLStreamException
+	 */
+	private void readXml( XMLStreamReader reader, long lSize ) throws SQLException, XMLStreamException {
+		Object event = Events.begin( Events.SERIALIZE );
+		Column[] cols = getColumns( );
+		XmlDecoder dec = new XmlDecoder( reader, cols );
+		Object[] values = new Object[ cols.length ];
+		clear( );
+		try {
+			while( dec.next( values ) ) {
+				insertValues( values );
+			}
+		}
+		catch( ParseException e ) {
+			throw new SQLException( e.getMessage( ), e );
+		}
+		finally {
+			reader.close( );
+		}
+		acceptChanges( );
+		for( XmlDecoder.CellUpdate update : dec.getUpdates( ) ) {
+			setObject( update.getRow( ), update.getCol( ), update.getValue( ) );
+		}
+		List< Integer > deleted = dec.getDeleted( );
+		for( int i = deleted.size( ) - 1; i >= 0; i-- ) {
+			removeRow( deleted.get( i ) );
+		}
+		for( Object[] inserted : dec.getInserted( ) ) {
+			insertValues( inserted );
+		}
+		Events.commit( event, getDataBufferName( ), "putXml", null, size( ), lSize );
+		LOG.debug( "putXml: success, rows: " + size( ) );
+	}
+
+	/**
+	 * Returns data buffer columns in the column number order
+	 * 
+	 * @return the columns
+	 */
+	private Column[] getColumns( ) {
+		Column[] cols = new Column[ desc.getColumns( ).length ];
+		for( Column col : desc.getColumns( ) ) {
+			cols[ col.getColNum( ) ] = col;
+		}
+		return( cols );
+	}
+
+	/**
+	 * Inserts row with the specified values after the last row
+	 * 
+	 * @param values
+	 *            the row values in the column number order
+	 * 
+	 * @throws SQLException
+	 */
+	private void insertValues( Object[] values ) throws SQLException {
+		moveToInsertRow( );
+		for( int iCol = 0; iCol < values.length; iCol++ ) {
+			updateObject( iCol + 1, values[ iCol ] );
+		}
+		insertRow( );
+	}
+
+	/**
+	 * Adds rows from the JSON reader.
+	 *
+	 * @param in
+	 *            the JSON reader
+	 * @param lSize
+	 *            the JSON data size in characters if it's known, otherwise 0
+	 *
+	 * @throws SQLException
+	 * @throws ParseException
+	 * @throws IOException
+	 */
+	private void putJson( Reader in, long lSize ) throws SQLException, ParseException, IOException {
+		Object event = Events.begin( Events.SERIALIZE );
+		Column[] cols = new Column[ desc.getColumns( ).length ];
+		ValueDecoder[] decoders = new ValueDecoder[ cols.length ];
+		for( Column col : desc.getColumns( ) ) {
+			cols[ col.getColNum( ) ] = col;
+			decoders[ col.getColNum( ) ] = getDecoder( col.getType( ).getSQLType( ) );
+		}
+		JsonReader reader = new JsonReader( in );
+		int iRowCount = 0;
+		reader.beginArray( );
+		while( reader.hasNext( ) ) {
+			reader.beginArray( );
+			moveToInsertRow( );
+			int iCol = 0;
+			while( reader.hasNext( ) ) {
+				if( iCol >= cols.length ) {
+					throw new IllegalArgumentException( "Exceeds available columns count" );
+				}
+				Object value = null;
+				if( reader.peek( ) == JsonToken.NULL ) {
+					reader.nextNull( );
+				} else {
+					try {
+						value = decoders[ iCol ].decode( reader );
+					}
+					catch( ParseException | NumberFormatException | IllegalStateException e ) {
+						ParseException ex = new ParseException( cols[ iCol ].getName( ) + ": " + e.getMessage( ), 0 );
+						ex.initCause( e );
+						throw ex;
+					}
+				}
+				updateObject( iCol + 1, value );
+				iCol++;
+			}
+			for( ; iCol < cols.length; iCol++ ) {
+				updateObject( iCol + 1, null );
+			}
+			reader.endArray( );
+			insertRow( );
+			iRowCount++;
+		}
+		reader.endArray( );
+		Events.commit( event, getDataBufferName( ), "putJson", null, iRowCount, lSize );
+		LOG.debug( "putJson: success, rows: " + iRowCount );
+	}
+
+	/**
+	 * Returns json value decoder for the specified sql type. Json numbers and
+	 * booleans are decoded directly, strings are converted the same way as
+	 * {@link #toSQLType(String, int)} does.
+	 *
+	 * @param iType
+	 *            the sql type
+	 *
+	 * @return the decoder
+	 */
+	private ValueDecoder getDecoder( int iType ) {
+		switch( iType ) {
+			case Types.VARCHAR:
+				return( reader -> reader.peek( ) == JsonToken.BOOLEAN ? String.valueOf( reader.nextBoolean( ) ) : reader.nextString( ) );
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				return( reader -> {
+					if( reader.peek( ) == JsonToken.STRING ) {
+						return( toSQLType( reader.nextString( ), iType ) );
+					}
+					return( reader.nextInt( ) );
+				} );
+			case Types.BIGINT:
+				return( reader -> {
+					if( reader.peek( ) == JsonToken.STRING ) {
+						return( toSQLType( reader.nextString( ), iType ) );
+					}
+					return( reader.nextLong( ) );
+				} );
+			case Types.DOUBLE:
+				return( reader -> {
+					if( reader.peek( ) == JsonToken.STRING ) {
+						return( toSQLType( reader.nextString( ), iType ) );
+					}
+					return( reader.nextDouble( ) );
+				} );
+			case Types.FLOAT:
+				return( reader -> {
+					if( reader.peek( ) == JsonToken.STRING ) {
+						return( toSQLType( reader.nextString( ), iType ) );
+					}
+					return( ( float )reader.nextDouble( ) );
+				} );
+			case Types.BOOLEAN:
+				return( reader -> {
+					if( reader.peek( ) == JsonToken.BOOLEAN ) {
+						return( reader.nextBoolean( ) );
+					}
+					return( toSQLType( reader.nextString( ), iType ) );
+				} );
+			case Types.TIMESTAMP:
+				return( reader -> toSQLType( reader.nextString( ), iType ) );
+			default:
+				return( reader -> {
+					reader.skipValue( );
+					return( null );
+				} );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieve()
+	 */
+	@Override
+	public int retrieve( ) throws SQLException {
+		if( bKeysetPaging ) {
+			pageKeys.clear( );
+			iPage = 1;
+		}
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.RETRIEVE );
+		long lTTL = desc.getTable( ).getCacheTTL( );
+		Coalescer coalescer = dbConn.getCoalescer( );
+		// unit of work connection may see not committed changes, they mustn't be shared
+		if( getPageSize( ) > 0 || ( lTTL <= 0 && coalescer == null ) || getUnitOfWork( ) != null ) {
+			int iRowCount = populate( );
+			Events.commit( event, getDataBufferName( ), "retrieve", getCommand( ), iRowCount, 0 );
+			record( Metrics.RETRIEVE, lStart );
+			count( Metrics.ROWS_FETCHED, iRowCount );
+			return( iRowCount );
+		}
+		ResultCache cache = dbConn.getResultCache( );
+		String sTable = desc.getTable( ).getUpdateTableName( );
+		ResultCache.Key key = new ResultCache.Key( 
+			getDataBufferName( ), sTable, getCommand( ), getArgs( ), cache.getGeneration( sTable ) 
+		);
+		List< Object[] > rows = ( lTTL > 0 ) ? cache.get( key ) : null;
+		if( rows != null ) {
+			int iRowCount = populate( rows );
+			Events.commit( event, getDataBufferName( ), "retrieve cached", getCommand( ), iRowCount, 0 );
+			record( Metrics.RETRIEVE, lStart );
+			count( Metrics.CACHE_HITS, 1 );
+			return( iRowCount );
+		}
+		Coalescer.Call call = ( coalescer == null ) ? null : coalescer.join( key );
+		if( call != null && !call.isLeader( ) ) {
+			int iRowCount = populate( call.await( ) );
+			Events.commit( event, getDataBufferName( ), "retrieve coalesced", getCommand( ), iRowCount, 0 );
+			record( Metrics.RETRIEVE, lStart );
+			count( Metrics.COALESCED, 1 );
+			return( iRowCount );
+		}
+		int iRowCount;
+		try {
+			iRowCount = populate( );
+			boolean bWaiters = call != null && call.leave( );
+			if( lTTL > 0 || bWaiters ) {
+				rows = getRows( );
+				if( lTTL > 0 ) {
+					cache.put( key, rows, lTTL );
+				}
+				if( bWaiters ) {
+					call.complete( rows );
+				}
+			}
+		}
+		catch( SQLException | RuntimeException e ) {
+			if( call != null ) {
+				call.fail( e );
+			}
+			throw e;
+		}
+		Events.commit( event, getDataBufferName( ), "retrieve", getCommand( ), iRowCount, 0 );
+		record( Metrics.RETRIEVE, lStart );
+		count( Metrics.ROWS_FETCHED, iRowCount );
+		return( iRowCount );
+	}
+
+	/**
+	 * Populates data buffer with the cached rows, populated rows are 
+	 * unchanged.
+	 *
+	 * @param rows
+	 *            the cached rows
+	 *
+	 * @return the row count
+	 *
+	 * @throws SQLException
+	 */
+	private int populate( List< Object[] > rows ) throws SQLException {
+		clear( );
+		for( Object[] row : rows ) {
+			moveToInsertRow( );
+			for( int iCol = 0; iCol < row.length; iCol++ ) {
+				updateObject( iCol + 1, copyValue( row[ iCol ] ) );
+			}
+			insertRow( );
+		}
+		acceptChanges( );
+		return( getRowCount( ) );
+	}
+
+	/**
+	 * Returns copy of all rows values to cache them.
+	 *
+	 * @return the rows
+	 *
+	 * @throws SQLException
+	 */
+	private List< Object[] > getRows( ) throws SQLException {
+		int iRowCount = size( );
+		int iColCount = desc.getColumns( ).length;
+		List< Object[] > rows = new ArrayList< >( iRowCount );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			Object[] row = new Object[ iColCount ];
+			for( int iCol = 0; iCol < iColCount; iCol++ ) {
+				row[ iCol ] = copyValue( getObject( iRow, iCol + 1 ) );
+			}
+			rows.add( row );
+		}
+		return( rows );
+	}
+
+	/**
+	 * Returns copy of the mutable value (timestamp), other values are 
+	 * immutable and returned as is.
+	 *
+	 * @param value
+	 *            the value
+	 *
+	 * @return the value copy
+	 */
+	private static Object copyValue( Object value ) {
+		if( value instanceof Timestamp ) {
+			Timestamp ts = new Timestamp( ( ( Timestamp )value ).getTime( ) );
+			ts.setNanos( ( ( Timestamp )value ).getNanos( ) );
+			return( ts );
+		}
+		return( value );
+	}
+
+	/**
+	 * Invalidates cached retrieve results of the update table, in the unit of
+	 * work results are invalidated when it's committed.
+	 */
+	void invalidateResults( ) {
+		String sTable = desc.getTable( ).getUpdateTableName( );
+		if( sTable != null && !"".equals( sTable ) ) {
+			UnitOfWork uow = getUnitOfWork( );
+			if( uow != null ) {
+				uow.invalidate( sTable );
+			} else {
+				dbConn.getResultCache( ).invalidate( sTable );
+			}
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieve(java.util.List)
+	 */
+	@Override
+	public int retrieve( List< Serializable > args ) throws SQLException {
+		this.args = args;
+		return( retrieve( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieve(java.util.List, java.lang.String)
+	 */
+	@Override
+	public int retrieve( List< Serializable > args, String sAddWhere ) throws SQLException, StandardException {
+		setCommand( sAddWhere );
+		this.args = null;
+		return( args == null ? retrieve( ) : retrieve( args ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieve(java.lang.String)
+	 */
+	@Override
+	public int retrieve( String sAddWhere ) throws SQLException, StandardException {
+		return( retrieve( null, sAddWhere ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieve(org.homedns.mkh.databuffer.Filter)
+	 */
+	@Override
+	public int retrieve( Filter filter ) throws SQLException, StandardException, ParseException {
+		return( retrieve( null, null, filter ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieve(java.util.List, java.lang.String, org.homedns.mkh.databuffer.Filter)
+	 */
+	@Override
+	public int retrieve( 
+		List< Serializable > args, String sAddWhere, Filter filter 
+	) throws SQLException, StandardException, ParseException {
+		if( filter == null || filter.isEmpty( ) ) {
+			return( retrieve( args, sAddWhere ) );
+		}
+		if( desc.getQueryCache( ).hasTrailingParameters( ) ) {
+			// filter values are bound after the query arguments
+			throw new IllegalArgumentException( 
+				getDataBufferName( ) + ": filter isn't supported, query has parameters after the WHERE clause" 
+			);
+		}
+		List< Serializable > allArgs = ( args == null ) ? new ArrayList< >( ) : new ArrayList< >( args );
+		String sFilter = getWhere( filter, allArgs, dbConn.getMaxInValues( ) );
+		boolean bAddWhere = sAddWhere != null && !"".equals( sAddWhere );
+		setCommand( bAddWhere ? "(" + sAddWhere + ") AND " + sFilter : sFilter );
+		return( retrieve( allArgs ) );
+	}
+
+	/**
+	 * Renders filter to the WHERE clause conditions with '?' placeholders, IN
+	 * values list is padded up to the power of two by the last value to limit
+	 * the number of different statements, but not over the maximum number of
+	 * IN values.
+	 *
+	 * @param filter
+	 *            the filter
+	 * @param values
+	 *            the list to add values to bind
+	 * @param iMaxInValues
+	 *            the maximum number of IN values
+	 *
+	 * @return the WHERE clause conditions
+	 *
+	 * @throws ParseException
+	 * @throws IllegalArgumentException
+	 *             if IN values list is longer than the maximum
+	 */
+	private String getWhere( Filter filter, List< Serializable > values, int iMaxInValues ) throws ParseException {
+		StringBuilder sb = new StringBuilder( );
+		for( Filter.Condition cond : filter.getConditions( ) ) {
+			Column col = desc.getColumn( cond.getColName( ) );
+			List< Serializable > condValues = new ArrayList< >( );
+			for( Serializable value : cond.getValues( ) ) {
+				condValues.add( toFilterValue( col, value ) );
+			}
+			if( sb.length( ) > 0 ) {
+				sb.append( " AND " );
+			}
+			sb.append( col.getDBName( ) ).append( ' ' ).append( cond.getOperator( ).getSQL( ) );
+			switch( cond.getOperator( ) ) {
+				case IS_NULL:
+				case IS_NOT_NULL:
+					break;
+				case BETWEEN:
+					sb.append( " ? AND ?" );
+					values.addAll( condValues );
+					break;
+				case IN:
+					int iCount = condValues.size( );
+					if( iCount > iMaxInValues ) {
+						throw new IllegalArgumentException( 
+							getDataBufferName( ) + ": " + cond.getColName( ) + ": IN takes at most " + 
+							iMaxInValues + " values, but " + iCount + " specified" 
+						);
+					}
+					int iBucket = ( iCount == 1 ) ? 1 : Integer.highestOneBit( iCount - 1 ) << 1;
+					iBucket = Math.max( Math.min( iBucket, iMaxInValues ), iCount );
+					sb.append( " (" );
+					for( int i = 0; i < iBucket; i++ ) {
+						sb.append( i == 0 ? "?" : ", ?" );
+						values.add( condValues.get( Math.min( i, iCount - 1 ) ) );
+					}
+					sb.append( ")" );
+					break;
+				default:
+					sb.append( " ?" );
+					values.addAll( condValues );
+			}
+		}
+		return( sb.toString( ) );
+	}
+
+	/**
+	 * Converts filter value to the column type by the column type codec.
+	 *
+	 * @param col
+	 *            the column
+	 * @param value
+	 *            the filter value
+	 *
+	 * @return the value to bind
+	 *
+	 * @throws ParseException
+	 */
+	private Serializable toFilterValue( Column col, Serializable value ) throws ParseException {
+		return( ( Serializable )codecs[ col.getColNum( ) ].convert( value ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#cancel()
+	 */
+	@Override
+	public void cancel( ) throws SQLException {
+		Statement stmt = runningStmt;
+		if( stmt != null ) {
+			LOG.debug( getDataBufferName( ) + ": cancel" );
+			stmt.cancel( );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieveAsync()
+	 */
+	@Override
+	public CompletableFuture< Integer > retrieveAsync( ) {
+		return( async( ( ) -> retrieve( ) ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#retrieveAsync(java.util.List, java.lang.String)
+	 */
+	@Override
+	public CompletableFuture< Integer > retrieveAsync( List< Serializable > args, String sAddWhere ) {
+		return( async( ( ) -> retrieve( args, sAddWhere ) ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#saveAsync(int, int, boolean, java.lang.Object)
+	 */
+	@Override
+	public CompletableFuture< Void > saveAsync( int iQueryType, int iDataFormat, boolean bBatch, Object data ) {
+		return( 
+			async( ( ) -> {
+				save( iQueryType, iDataFormat, bBatch, data );
+				return( null );
+			} ) 
+		);
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#saveBatchAsync(int)
+	 */
+	@Override
+	public CompletableFuture< Void > saveBatchAsync( int iQueryType ) {
+		return( 
+			async( ( ) -> {
+				saveBatch( iQueryType );
+				return( null );
+			} ) 
+		);
+	}
+
+	/**
+	 * Runs operation on the data source executor, the future cancellation 
+	 * cancels the statement in execution.
+	 *
+	 * @param operation
+	 *            the operation
+	 *
+	 * @return the operation future
+	 */
+	private < T > CompletableFuture< T > async( Callable< T > operation ) {
+		CompletableFuture< T > result = new CompletableFuture< T >( ) {
+			@Override
+			public boolean cancel( boolean bMayInterruptIfRunning ) {
+				boolean bCancelled = super.cancel( bMayInterruptIfRunning );
+				if( bCancelled ) {
+					try {
+						AbstractDataBuffer.this.cancel( );
+					}
+					catch( SQLException e ) {
+						LOG.warn( getDataBufferName( ) + ": " + e.getMessage( ), e );
+					}
+				}
+				return( bCancelled );
+			}
+		};
+		try {
+			dbConn.getExecutor( ).execute( 
+				( ) -> {
+					if( result.isDone( ) ) {
+						return;
+					}
+					pendingTask = result;
+					try {
+						result.complete( operation.call( ) );
+					}
+					catch( Throwable e ) {
+						result.completeExceptionally( e );
+					}
+					finally {
+						pendingTask = null;
+					}
+				}
+			);
+		}
+		catch( RejectedExecutionException e ) {
+			result.completeExceptionally( e );
+		}
+		return( result );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#save(int)
+	 */
+	@Override
+	public void save( int iQueryType ) throws SQLException {
+		int iRow = getCurrentRow( );
+		saveRows( iQueryType, iRow, iRow );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#save(int, int)
+	 */
+	@Override
+	public void save( int iQueryType, int iRow ) throws SQLException {
+		if( setRow( iRow ) ) {
+			save( iQueryType );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#save(int, int, boolean, java.lang.Object)
+	 */
+	@Override
+	@SuppressWarnings( "unchecked" )
+	public void save( int iQueryType, int iDataFormat, boolean bBatch, Object data ) throws Exception {
+		try( AbstractDataBuffer db = newInstance( ) ) {
+			// statements of the data buffer copy are cancelled by this data buffer
+			db.owner = this;
+			if( iDataFormat == CSV ) {
+				saveCsv( db, iQueryType, bBatch, data instanceof Reader ? ( Reader )data : new StringReader( ( String )data ) );
+				return;
+			}
+			if( iDataFormat == XML ) {
+				if( data instanceof InputStream ) {
+					db.readXml( ( InputStream )data );
+				} else {
+					db.putXml( ( String )data );
+				}
+			} else if( iDataFormat == JSON ) {
+				if( data instanceof Reader ) {
+					db.putJson( ( Reader )data );
+				} else {
+					db.putJson( ( String )data );
+				}
+			} else if( iDataFormat == SERIALIZABLE_ARRAY ) {
+				db.insertData( ( Serializable[][] )data );
+			} else if( iDataFormat == SERIALIZABLE_LIST ) {
+				if( data instanceof List< ? > ) {
+					db.insertData( ( List< List< Serializable > > )data );
+				}
+			} else if( iDataFormat == BINARY ) {
+				if( data instanceof InputStream ) {
+					db.putBinary( ( InputStream )data );
+				} else {
+					db.putBinary( ( byte[] )data );
+				}
+			}
+			if( bBatch ) {
+				db.saveBatch( iQueryType );
+			} else {
+				db.saveRows( iQueryType, 1, db.size( ) );
+			}
+			retrieve( );
+			returnValue.clear( );
+			returnValue.addAll( db.getReturnValue( ) );
+		}
+	}
+
+	/**
+	 * Saves CSV data by chunks of {@link #LOAD_CHUNK_SIZE} rows, data buffer
+	 * copy keeps one chunk at a time. Return value contains the last chunk 
+	 * result.
+	 * 
+	 * @param db
+	 *            the data buffer copy
+	 * @param iQueryType
+	 *            the sql modification query type
+	 * @param bBatch
+	 *            true to save data by batch
+	 * @param in
+	 *            the CSV data reader
+	 * 
+	 * @throws Exception
+	 */
+	private void saveCsv( AbstractDataBuffer db, int iQueryType, boolean bBatch, Reader in ) throws Exception {
+		CsvDecoder dec = new CsvDecoder( in, getColumns( ) );
+		int iRowCount = 0;
+		while( db.putCsv( dec, LOAD_CHUNK_SIZE ) > 0 ) {
+			if( bBatch ) {
+				db.saveBatch( iQueryType );
+			} else {
+				db.saveRows( iQueryType, 1, db.size( ) );
+			}
+			iRowCount += db.size( );
+			LOG.debug( getDataBufferName( ) + ": CSV rows saved: " + iRowCount );
+			db.clear( );
+		}
+		retrieve( );
+		returnValue.clear( );
+		returnValue.addAll( db.getReturnValue( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#saveChanges()
+	 */
+	@Override
+	public void saveChanges( ) throws SQLException {
+		if( getUnitOfWork( ) != null ) {
+			// changes are saved and accepted by the unit of work commit
+			LOG.debug( getDataBufferName( ) + ": saveChanges: deferred to the unit of work" );
+			return;
+		}
+		Changes changes = getChanges( );
+		if( !changes.isEmpty( ) ) {
+			long lStart = System.nanoTime( );
+			Object event = Events.begin( Events.SAVE );
+			try( Connection conn = getConnection( UPDATE ) ) {
+				boolean bAutoCommit = begin( conn );
+				try {
+					// deletes go first to release unique keys reused by the updated or inserted rows
+					saveDeleted( conn, changes );
+					saveUpdated( conn, changes );
+					saveInserted( conn, changes );
+					conn.commit( );
+					invalidateResults( );
+				}
+				catch( SQLException e ) {
+					conn.rollback( );
+					throw e;
+				}
+				finally {
+					end( conn, bAutoCommit );
+				}
+			}
+			Events.commit( event, getDataBufferName( ), "saveChanges", null, changes.size( ), 0 );
+			record( Metrics.SAVE, lStart );
+			count( Metrics.ROWS_SAVED, changes.size( ) );
+		}
+		acceptChanges( );
+	}
+
+	/**
+	 * Returns not saved changes of the data buffer rows.
+	 *
+	 * @return the changes
+	 *
+	 * @throws SQLException
+	 */
+	Changes getChanges( ) throws SQLException {
+		Changes changes = new Changes( );
+		changes.deleted = getDeletedRows( );
+		BitSet updatable = new BitSet( );
+		for( String sColName : desc.getUpdatableColNames( ) ) {
+			updatable.set( findColumn( sColName ) );
+		}
+		int iRowCount = size( );
+		for( int iRow = 1; iRow <= iRowCount; iRow++ ) {
+			int iState = getRowState( iRow );
+			if( iState == ROW_INSERTED ) {
+				changes.inserted.add( iRow );
+			} else if( iState == ROW_UPDATED ) {
+				BitSet cols = getUpdatedColumns( iRow );
+				cols.and( updatable );
+				if( !cols.isEmpty( ) ) {
+					changes.updated.add( iRow );
+					changes.updateGroups.computeIfAbsent( cols, k -> new ArrayList< >( ) ).add( iRow );
+				}
+			}
+		}
+		LOG.debug( 
+			getDataBufferName( ) + ": changes: deleted: " + changes.deleted.size( ) + 
+			", updated: " + changes.updated.size( ) + ", inserted: " + changes.inserted.size( ) 
+		);
+		return( changes );
+	}
+
+	/**
+	 * Saves deleted rows using the specified connection, the transaction 
+	 * isn't committed.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param changes
+	 *            the changes
+	 *
+	 * @throws SQLException
+	 */
+	void saveDeleted( Connection conn, Changes changes ) throws SQLException {
+		executeDeleted( conn, bIsStoredProcedure ? sp : delete, changes.deleted );
+	}
+
+	/**
+	 * Saves updated rows using the specified connection, rows with the same
+	 * updated columns are saved by one batch. The transaction isn't committed.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param changes
+	 *            the changes
+	 *
+	 * @throws SQLException
+	 */
+	void saveUpdated( Connection conn, Changes changes ) throws SQLException {
+		if( bIsStoredProcedure ) {
+			executeRows( conn, sp, UPDATE, changes.updated );
+			return;
+		}
+		for( Map.Entry< BitSet, List< Integer > > group : changes.updateGroups.entrySet( ) ) {
+			executeRows( conn, getUpdateQuery( group.getKey( ) ), UPDATE, group.getValue( ) );
+		}
+	}
+
+	/**
+	 * Saves inserted rows using the specified connection, the transaction 
+	 * isn't committed.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param changes
+	 *            the changes
+	 *
+	 * @throws SQLException
+	 */
+	void saveInserted( Connection conn, Changes changes ) throws SQLException {
+		executeRows( conn, bIsStoredProcedure ? sp : insert, INSERT, changes.inserted );
+	}
+
+	/**
+	 * Returns save exception with the query and the next exception message.
+	 *
+	 * @param sQuery
+	 *            the failed query
+	 * @param e
+	 *            the exception
+	 *
+	 * @return the save exception
+	 */
+	private static SQLException getSaveException( String sQuery, SQLException e ) {
+		SQLException ne = e.getNextException( );
+		String sErrMsg = "";
+		if( ne != null ) {
+			sErrMsg = ( ne.getMessage( ) != null ) ? ne.getMessage( ) : sErrMsg;
+		}
+		return( new SQLException( sQuery + ": detailed message: " + sErrMsg, e ) );
+	}
+
+	/**
+	 * Executes batch of the deleted rows, failure is reported with the 
+	 * failed query {@link #getSaveException(String, SQLException)}.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param query
+	 *            the delete query or stored procedure
+	 * @param rows
+	 *            the deleted rows original values
+	 *
+	 * @throws SQLException
+	 */
+	private void executeDeleted( Connection conn, SQLQuery query, List< Object[] > rows ) throws SQLException {
+		if( rows.isEmpty( ) ) {
+			return;
+		}
+		String sQuery = query.getQuery( );
+		try( PreparedStatement stmt = prepare( conn, query ) ) {
+			setStatement( stmt );
+			for( Object[] row : rows ) {
+				int iItem = 1;
+				if( query == sp ) {
+					stmt.setInt( iItem++, DELETE );
+				}
+				for( int iCol : query.getParmIndex( ) ) {
+					codecs[ iCol - 1 ].bind( stmt, iItem, row[ iCol - 1 ] );
+					iItem++;
+				}
+				stmt.addBatch( );
+			}
+			sQuery = stmt.toString( );
+			LOG.debug( "executing query: " + sQuery );
+			stmt.executeBatch( );
+		}
+		catch( SQLException e ) {
+			throw getSaveException( sQuery, e );
+		}
+		finally {
+			setStatement( null );
+		}
+	}
+
+	/**
+	 * Executes batch of the inserted or updated rows. Key column of the 
+	 * updated rows is bound with the original value. Failure is reported 
+	 * with the failed query {@link #getSaveException(String, SQLException)}.
+	 *
+	 * @param conn
+	 *            the connection
+	 * @param query
+	 *            the insert, update query or stored procedure
+	 * @param iQueryType
+	 *            the sql modification query type
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#INSERT},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#UPDATE}
+	 * @param rows
+	 *            the row indexes
+	 *
+	 * @throws SQLException
+	 */
+	private void executeRows( Connection conn, SQLQuery query, int iQueryType, List< Integer > rows ) throws SQLException {
+		if( rows.isEmpty( ) ) {
+			return;
+		}
+		String sQuery = query.getQuery( );
+		try( PreparedStatement stmt = prepare( conn, query ) ) {
+			setStatement( stmt );
+			int[] aiParmIndex = query.getParmIndex( );
+			int iKey = ( query == sp || iQueryType == INSERT ) ? -1 : aiParmIndex.length - 1;
+			for( int iRow : rows ) {
+				int iItem = 1;
+				if( query == sp ) {
+					stmt.setInt( iItem++, iQueryType );
+				}
+				for( int i = 0; i < aiParmIndex.length; i++ ) {
+					if( i == iKey ) {
+						codecs[ aiParmIndex[ i ] - 1 ].bind( stmt, iItem, getOriginalObject( iRow, aiParmIndex[ i ] ) );
+					} else {
+						bind( stmt, iItem, iRow, aiParmIndex[ i ] );
+					}
+					iItem++;
+				}
+				stmt.addBatch( );
+			}
+			sQuery = stmt.toString( );
+			LOG.debug( "executing query: " + sQuery );
+			stmt.executeBatch( );
+		}
+		catch( SQLException e ) {
+			throw getSaveException( sQuery, e );
+		}
+		finally {
+			setStatement( null );
+		}
+	}
+
+	/**
+	 * Returns update query for the specified updated columns.
+	 *
+	 * @param cols
+	 *            the updated column indexes
+	 *
+	 * @return the update query
+	 */
+	private SQLQuery getUpdateQuery( BitSet cols ) {
+		return( 
+			updateQueries.computeIfAbsent( 
+				cols, 
+				k -> {
+					List< String > colNames = new ArrayList< >( );
+					for( int iCol = k.nextSetBit( 0 ); iCol >= 0; iCol = k.nextSetBit( iCol + 1 ) ) {
+						colNames.add( desc.getColumns( )[ iCol - 1 ].getName( ) );
+					}
+					SQLQuery query = new SQLQuery(
+						"update " + desc.getTable( ).getUpdateTableName( ) +
+						" set " + Util.assemble( colNames, " = ?," ) +
+						" = ?" +
+						" where " + sPKCol + " = ?",
+						UPDATE
+					);
+					query.setParmName( colNames );
+					query.addParmName( sPKCol );
+					return( query );
+				}
+			) 
+		);
+	}
+
+	/**
+	 * Saves specified rows one by one using single connection and statement
+	 * in the transaction, which is committed every 
+	 * {@link org.homedns.mkh.databuffer.Table#getCommitInterval()} rows if
+	 * commit interval > 0. On failure not committed rows are rolled back.
+	 *
+	 * @param iQueryType
+	 *            the sql modification query type
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#INSERT},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#UPDATE},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#DELETE}
+	 * @param iFirstRow
+	 *            the first row index
+	 * @param iLastRow
+	 *            the last row index
+	 *
+	 * @throws SQLException
+	 */
+	protected void saveRows( int iQueryType, int iFirstRow, int iLastRow ) throws SQLException {
+		if( iFirstRow > iLastRow ) {
+			return;
+		}
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SAVE );
+		try {
+			if( bIsStoredProcedure ) {
+				execute( iQueryType, sp, iFirstRow, iLastRow );
+			} else {
+				if( iQueryType == INSERT ) {
+					execute( insert, iFirstRow, iLastRow );
+				} else if( iQueryType == UPDATE ) {
+					execute( update, iFirstRow, iLastRow );
+				} else if( iQueryType == DELETE ) {
+					execute( delete, iFirstRow, iLastRow );
+				}
+			}
+		}
+		finally {
+			// rows committed by the commit interval are saved even if it fails 
+			invalidateResults( );
+		}
+		Events.commit( 
+			event, getDataBufferName( ), getOperation( iQueryType ), getSQL( iQueryType ), iLastRow - iFirstRow + 1, 0 
+		);
+		record( Metrics.SAVE, lStart );
+		count( Metrics.ROWS_SAVED, iLastRow - iFirstRow + 1 );
+	}
+
+	/**
+	 * Returns sql modification query type name.
+	 *
+	 * @param iQueryType
+	 *            the sql modification query type
+	 *
+	 * @return the query type name
+	 */
+	private static String getOperation( int iQueryType ) {
+		if( iQueryType == INSERT ) {
+			return( "insert" );
+		} else if( iQueryType == UPDATE ) {
+			return( "update" );
+		} else if( iQueryType == DELETE ) {
+			return( "delete" );
+		}
+		return( "unknown" );
+	}
+
+	/**
+	 * Returns sql modification query or stored procedure call for the query
+	 * type.
+	 *
+	 * @param iQueryType
+	 *            the sql modification query type
+	 *
+	 * @return the query or null if it isn't defined
+	 */
+	private String getSQL( int iQueryType ) {
+		SQLQuery query = null;
+		if( bIsStoredProcedure ) {
+			query = sp;
+		} else if( iQueryType == INSERT ) {
+			query = insert;
+		} else if( iQueryType == UPDATE ) {
+			query = update;
+		} else if( iQueryType == DELETE ) {
+			query = delete;
+		}
+		return( query == null ? null : query.getQuery( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#saveBatch(int)
+	 */
+	@Override
+	public void saveBatch( int iQueryType ) throws SQLException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SAVE );
+		try {
+			if( bIsStoredProcedure ) {
+				executeBatch( iQueryType, sp );
+			} else {
+				if( iQueryType == INSERT ) {
+					executeBatch( iQueryType, insert );
+				} else if( iQueryType == UPDATE ) {
+					executeBatch( iQueryType, update );
+				} else if( iQueryType == DELETE ) {
+					executeBatch( iQueryType, delete );
+				}
+			}
+		}
+		finally {
+			invalidateResults( );
+		}
+		Events.commit( 
+			event, getDataBufferName( ), "batch " + getOperation( iQueryType ), getSQL( iQueryType ), size( ), 0 
+		);
+		record( Metrics.SAVE_BATCH, lStart );
+		count( Metrics.ROWS_SAVED, size( ) );
+	}
+
+	/**
+	 * Sets retrieve query, the original data buffer query modified by the
+	 * additional conditions if any.
+	 *
+	 * @param sAddWhere
+	 *            the additional conditions for the WHERE clause or null
+	 *
+	 * @throws StandardException
+	 */
+	private void setCommand( String sAddWhere ) throws StandardException {
+		if( sAddWhere != null && !"".equals( sAddWhere ) ) {
+			sCommand = modifyQuery( sAddWhere );
+			LOG.debug( "sAddWhere: " + sAddWhere );
+			LOG.debug( "modifyQuery: " + sCommand );
+		} else {
+			sCommand = desc.getTable( ).getQuery( );
+		}
+	}
+
+	/**
+	* Sets SQL modification queries for prepared statements.
+	*/
+	private void setSQL( ) throws SQLException {
+		List< String > colNames = desc.getUpdatableColNames( );
+		int iColCount = colNames.size( );
+		if( iColCount < 1 ) {
+			return;
+		}
+		String sTable = desc.getTable( ).getUpdateTableName( );
+		if( "".equals( sTable ) ) {
+			return;
+		}
+		bIsStoredProcedure = sTable.contains( "call" );
+		if( bIsStoredProcedure ) {
+			sp = new SQLQuery(
+				"{ " + sTable +
+				"(?," + Util.fill( "?,", iColCount * 2 ).substring( 0, iColCount * 2 - 1 ) + ") }",
+				UNKNOWN
+			);
+			sp.setParmName( colNames );
+		} else {
+			insert = new SQLQuery(
+				"insert into " + sTable +
+				"(" + Util.assemble( colNames, "," ) +
+				") values(" + Util.fill( "?,", iColCount * 2 ).substring( 0, iColCount * 2 - 1 ) + ")",
+				INSERT
+			);
+			insert.setParmName( colNames );
+			delete = new SQLQuery(
+				"delete from " + sTable + " where " + sPKCol + " = ?",
+				DELETE
+			);
+			delete.addParmName( sPKCol );
+			update = new SQLQuery(
+				"update " + sTable +
+				" set " + Util.assemble( colNames, " = ?," ) +
+				" = ?" +
+				" where " + sPKCol + " = ?",
+				UPDATE
+			);
+			update.setParmName( colNames );
+			update.addParmName( sPKCol );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#toSQLType(java.lang.String, int)
+	 */
+	@Override
+	public Serializable toSQLType( String sValue, int iType ) throws ParseException {
+		TypeCodec codec = TypeCodec.get( iType );
+		return( codec == null ? null : ( Serializable )codec.parse( sValue ) );
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString( ) {
+		String s = "";
+		try {
+			s = getClass( ).getSimpleName( ) + " [getJson()=" + getJson( ) + "]";
+		}
+		catch( SQLException e ) {
+			LOG.error( e.getMessage( ), e );
+		}
+		return( s );
+	}
+
+	/**
+	 * Decodes json value to the column sql type
+	 */
+	@FunctionalInterface
+	private interface ValueDecoder {
+		/**
+		 * Reads next not null json value
+		 *
+		 * @param reader
+		 *            the json reader
+		 *
+		 * @return the decoded value
+		 *
+		 * @throws IOException
+		 * @throws ParseException
+		 */
+		Object decode( JsonReader reader ) throws IOException, ParseException;
+	}
+
+	/**
+	 * Data row view over the data buffer row
+	 */
+	private class BufferRow implements DataRow {
+		private int iRow;
+
+		/**
+		 * @param iRow
+		 *            the row index
+		 */
+		private BufferRow( int iRow ) {
+			this.iRow = iRow;
+		}
+
+		@Override
+		public int getColumnCount( ) {
+			return( desc.getColumns( ).length );
+		}
+
+		@Override
+		public Object getObject( int iCol ) throws SQLException {
+			return( AbstractDataBuffer.this.getObject( iRow, iCol + 1 ) );
+		}
+
+		@Override
+		public Object getObject( String sColName ) throws SQLException {
+			return( AbstractDataBuffer.this.getObject( iRow, findColumn( sColName ) ) );
+		}
+
+		@Override
+		public Object getOriginalObject( int iCol ) throws SQLException {
+			return( AbstractDataBuffer.this.getOriginalObject( iRow, iCol + 1 ) );
+		}
+
+		@Override
+		public boolean isNull( int iCol ) throws SQLException {
+			return( getObject( iCol ) == null );
+		}
+
+		@Override
+		public int getInt( int iCol ) throws SQLException {
+			Object value = getObject( iCol );
+			return( value == null ? 0 : ( ( Number )value ).intValue( ) );
+		}
+
+		@Override
+		public long getLong( int iCol ) throws SQLException {
+			Object value = getObject( iCol );
+			return( value == null ? 0L : ( ( Number )value ).longValue( ) );
+		}
+
+		@Override
+		public double getDouble( int iCol ) throws SQLException {
+			Object value = getObject( iCol );
+			return( value == null ? 0.0 : ( ( Number )value ).doubleValue( ) );
+		}
+
+		@Override
+		public boolean getBoolean( int iCol ) throws SQLException {
+			Object value = getObject( iCol );
+			return( value == null ? false : ( Boolean )value );
+		}
+
+		@Override
+		public String getString( int iCol ) throws SQLException {
+			Object value = getObject( iCol );
+			return( value == null ? null : value.toString( ) );
+		}
+
+		@Override
+		public Timestamp getTimestamp( int iCol ) throws SQLException {
+			Object value = getObject( iCol );
+			return( value == null ? null : new Timestamp( ( ( Date )value ).getTime( ) ) );
+		}
+
+		@Override
+		public Serializable[] toArray( ) throws SQLException {
+			Serializable[] row = new Serializable[ getColumnCount( ) ];
+			for( int iCol = 0; iCol < row.length; iCol++ ) {
+				row[ iCol ] = ( Serializable )getObject( iCol );
+			}
+			return( row );
+		}
+	}
+
+	/**
+	 * Not saved changes of the data buffer rows
+	 */
+	static class Changes {
+		private List< Object[] > deleted = new ArrayList< >( );
+		private List< Integer > inserted = new ArrayList< >( );
+		private List< Integer > updated = new ArrayList< >( );
+		private Map< BitSet, List< Integer > > updateGroups = new LinkedHashMap< >( );
+
+		/**
+		 * Returns number of changed rows
+		 *
+		 * @return the number of changed rows
+		 */
+		int size( ) {
+			return( deleted.size( ) + updated.size( ) + inserted.size( ) );
+		}
+
+		/**
+		 * Returns true if there are no changes
+		 *
+		 * @return true if there are no changes
+		 */
+		boolean isEmpty( ) {
+			return( size( ) == 0 );
+		}
+	}
+
+	private class SQLQuery {
+		private int iOperation = UNKNOWN;
+		private List< String > parmName = new ArrayList< String >( );
+		private int[] aiParmIndex = new int[ 0 ];
+		private String sQuery;
+
+		/**
+		 * @param sQuery
+		 *            the query definition
+		 * @param iOperation
+		 *            the sql operation
+		 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#INSERT},
+		 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#UPDATE},
+		 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#DELETE}
+		 */
+		private SQLQuery( String sQuery, int iOperation ) {
+			setQuery( sQuery );
+			this.iOperation = iOperation;
+		}
+
+		/**
+		 * Adds parameter names to the list.
+		 *
+		 * @param sParmName
+		 *            the parameter name
+		 */
+		public void addParmName( String sParmName ) {
+			parmName.add( sParmName );
+			setParmIndex( );
+		}
+
+		/**
+		 * Returns sql operation.
+		 *
+		 * @return the sql operation
+		 *         {@link org.homedns.mkh.databuffer.DataBufferImpl#INSERT},
+		 *         {@link org.homedns.mkh.databuffer.DataBufferImpl#UPDATE},
+		 *         {@link org.homedns.mkh.databuffer.DataBufferImpl#DELETE}
+		 */
+		public int getOperation( ) {
+			return( iOperation );
+		}
+
+		/**
+		 * Returns parameters names list.
+		 *
+		 * @return parameters names list
+		 */
+		@SuppressWarnings( "unused" )
+		public List< String > getParmName( ) {
+			return( parmName );
+		}
+
+		/**
+		 * Returns parameters column indexes.
+		 *
+		 * @return parameters column indexes
+		 */
+		public int[] getParmIndex( ) {
+			return( aiParmIndex );
+		}
+
+		/**
+		 * Returns modifying query.
+		 *
+		 * @return query
+		 */
+		public String getQuery( ) {
+			return( sQuery );
+		}
+
+		/**
+		 * Sets parameters names list.
+		 *
+		 * @param parmName
+		 *            the parameters names list to set
+		 */
+		public void setParmName( List< String > parmName ) {
+			this.parmName.addAll( parmName );
+			setParmIndex( );
+		}
+
+		/**
+		 * Sets modifying query.
+		 *
+		 * @param sQuery
+		 *            the query to set
+		 */
+		public void setQuery( String sQuery ) {
+			this.sQuery = sQuery;
+		}
+
+		/**
+		 * Resolves parameters names to the column indexes.
+		 */
+		private void setParmIndex( ) {
+			aiParmIndex = new int[ parmName.size( ) ];
+			int iItem = 0;
+			for( String sParmName : parmName ) {
+				aiParmIndex[ iItem ] = findColumn( sParmName );
+				iItem++;
+			}
+		}
+	}
+}
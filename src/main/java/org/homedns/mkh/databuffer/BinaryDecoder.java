@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming binary decoder of the data buffer rows encoded by the 
+ * {@link org.homedns.mkh.databuffer.BinaryEncoder}. Stream columns are matched
+ * with the data buffer columns by name, data buffer columns missing in the 
+ * stream are set to null. The decoder isn't thread safe.
+ *
+ */
+class BinaryDecoder {
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_VARINT_BYTES = 10;
+
+	private InputStream in;
+	private byte[] buf = new byte[ BUFFER_SIZE ];
+	private int iPos = 0;
+	private int iLimit = 0;
+	private long lRead = 0;
+	private Type[] types;
+	private int[] aiTarget;
+	private List< List< String > > dictionaries;
+	private int iDictionaryLimit;
+	private byte[] nulls;
+
+	/**
+	 * @param in
+	 *            the source input stream
+	 * @param cols
+	 *            the data buffer columns in the column number order
+	 *
+	 * @throws IOException
+	 */
+	public BinaryDecoder( InputStream in, Column[] cols ) throws IOException {
+		this.in = in;
+		header( cols );
+	}
+
+	/**
+	 * Reads next row
+	 * 
+	 * @param values
+	 *            the row values in the data buffer column number order
+	 * 
+	 * @return false if there are no more rows
+	 * 
+	 * @throws IOException
+	 */
+	public boolean next( Object[] values ) throws IOException {
+		int iMarker = read( );
+		if( iMarker == BinaryEncoder.END ) {
+			return( false );
+		}
+		if( iMarker != BinaryEncoder.ROW ) {
+			throw new IOException( "Invalid row marker: " + iMarker );
+		}
+		Arrays.fill( values, null );
+		for( int i = 0; i < nulls.length; i++ ) {
+			nulls[ i ] = ( byte )read( );
+		}
+		for( int iCol = 0; iCol < types.length; iCol++ ) {
+			if( ( nulls[ iCol >> 3 ] & ( 1 << ( iCol & 7 ) ) ) == 0 ) {
+				Object value = value( iCol );
+				if( aiTarget[ iCol ] >= 0 ) {
+					values[ aiTarget[ iCol ] ] = value;
+				}
+			}
+		}
+		return( true );
+	}
+
+	/**
+	 * Returns number of bytes read from the stream
+	 *
+	 * @return the number of bytes
+	 */
+	public long getRead( ) {
+		return( lRead - ( iLimit - iPos ) );
+	}
+
+	/**
+	 * Reads header and matches stream columns with the data buffer columns
+	 * 
+	 * @param cols
+	 *            the data buffer columns in the column number order
+	 * 
+	 * @throws IOException
+	 */
+	private void header( Column[] cols ) throws IOException {
+		for( byte b : BinaryEncoder.MAGIC ) {
+			if( read( ) != b ) {
+				throw new IOException( "Not a data buffer binary data" );
+			}
+		}
+		int iVersion = read( );
+		if( iVersion != BinaryEncoder.VERSION ) {
+			throw new IOException( "Unsupported binary format version: " + iVersion );
+		}
+		iDictionaryLimit = ( int )varint( );
+		int iColCount = ( int )varint( );
+		types = new Type[ iColCount ];
+		aiTarget = new int[ iColCount ];
+		dictionaries = new ArrayList< >( iColCount );
+		nulls = new byte[ ( iColCount + 7 ) / 8 ];
+		for( int iCol = 0; iCol < iColCount; iCol++ ) {
+			String sName = string( );
+			types[ iCol ] = Type.valueOf( string( ) );
+			aiTarget[ iCol ] = -1;
+			for( Column col : cols ) {
+				if( col.getName( ).equals( sName ) ) {
+					if( col.getType( ) != types[ iCol ] ) {
+						throw new IllegalArgumentException( 
+							sName + ": column type " + types[ iCol ] + " doesn't match " + col.getType( ) 
+						);
+					}
+					aiTarget[ iCol ] = col.getColNum( );
+				}
+			}
+			if( aiTarget[ iCol ] == -1 ) {
+				throw new IllegalArgumentException( "column doesn't exist: " + sName );
+			}
+			dictionaries.add( BinaryEncoder.isDictionaryType( types[ iCol ] ) ? new ArrayList< >( ) : null );
+		}
+	}
+
+	/**
+	 * Reads not null value
+	 * 
+	 * @param iCol
+	 *            the stream column index
+	 * 
+	 * @return the value
+	 * 
+	 * @throws IOException
+	 */
+	private Object value( int iCol ) throws IOException {
+		switch( types[ iCol ] ) {
+			case BYTE:
+			case SHORT:
+			case INT:
+				return( ( int )unzigzag( varint( ) ) );
+			case LONG:
+				return( unzigzag( varint( ) ) );
+			case TIMESTAMP:
+				return( new Timestamp( unzigzag( varint( ) ) ) );
+			case DOUBLE:
+				return( Double.longBitsToDouble( fixed( 8 ) ) );
+			case FLOAT:
+				return( Float.intBitsToFloat( ( int )fixed( 4 ) ) );
+			case BOOLEAN:
+				return( read( ) != 0 );
+			case STRING:
+			case ASCIISTRING:
+				List< String > dictionary = dictionaries.get( iCol );
+				long lCode = varint( );
+				if( lCode == 0 ) {
+					String sValue = string( );
+					if( dictionary.size( ) < iDictionaryLimit ) {
+						dictionary.add( sValue );
+					}
+					return( sValue );
+				}
+				if( lCode > dictionary.size( ) ) {
+					throw new IOException( "Invalid dictionary code: " + lCode );
+				}
+				return( dictionary.get( ( int )lCode - 1 ) );
+			default:
+				return( string( ) );
+		}
+	}
+
+	/**
+	 * Returns zigzag decoded value
+	 * 
+	 * @param lValue
+	 *            the encoded value
+	 * 
+	 * @return the value
+	 */
+	private static long unzigzag( long lValue ) {
+		return( ( lValue >>> 1 ) ^ -( lValue & 1 ) );
+	}
+
+	/**
+	 * Reads unsigned varint
+	 * 
+	 * @return the value
+	 * 
+	 * @throws IOException
+	 */
+	private long varint( ) throws IOException {
+		long lValue = 0;
+		for( int i = 0; i < MAX_VARINT_BYTES; i++ ) {
+			int iByte = read( );
+			lValue |= ( long )( iByte & 0x7F ) << ( i * 7 );
+			if( ( iByte & 0x80 ) == 0 ) {
+				return( lValue );
+			}
+		}
+		throw new IOException( "Malformed varint" );
+	}
+
+	/**
+	 * Reads fixed length big endian value
+	 * 
+	 * @param iBytes
+	 *            the number of bytes
+	 * 
+	 * @return the value
+	 * 
+	 * @throws IOException
+	 */
+	private long fixed( int iBytes ) throws IOException {
+		long lValue = 0;
+		for( int i = 0; i < iBytes; i++ ) {
+			lValue = ( lValue << 8 ) | read( );
+		}
+		return( lValue );
+	}
+
+	/**
+	 * Reads varint length prefixed UTF-8 string
+	 * 
+	 * @return the string
+	 * 
+	 * @throws IOException
+	 */
+	private String string( ) throws IOException {
+		long lLength = varint( );
+		if( lLength > Integer.MAX_VALUE ) {
+			throw new IOException( "Invalid string length: " + lLength );
+		}
+		int iLength = ( int )lLength;
+		if( iLength <= buf.length ) {
+			ensure( iLength );
+			String s = new String( buf, iPos, iLength, StandardCharsets.UTF_8 );
+			iPos += iLength;
+			return( s );
+		}
+		byte[] bytes = new byte[ iLength ];
+		int iCopied = iLimit - iPos;
+		System.arraycopy( buf, iPos, bytes, 0, iCopied );
+		iPos = iLimit;
+		while( iCopied < iLength ) {
+			int iCount = in.read( bytes, iCopied, iLength - iCopied );
+			if( iCount < 0 ) {
+				throw new EOFException( "Unexpected end of binary data" );
+			}
+			iCopied += iCount;
+			lRead += iCount;
+		}
+		return( new String( bytes, StandardCharsets.UTF_8 ) );
+	}
+
+	/**
+	 * Reads unsigned byte
+	 * 
+	 * @return the byte
+	 * 
+	 * @throws IOException
+	 */
+	private int read( ) throws IOException {
+		ensure( 1 );
+		return( buf[ iPos++ ] & 0xFF );
+	}
+
+	/**
+	 * Reads stream until buffer has specified number of bytes
+	 * 
+	 * @param iBytes
+	 *            the number of bytes, not greater than buffer size
+	 * 
+	 * @throws IOException
+	 */
+	private void ensure( int iBytes ) throws IOException {
+		if( iLimit - iPos >= iBytes ) {
+			return;
+		}
+		System.arraycopy( buf, iPos, buf, 0, iLimit - iPos );
+		iLimit -= iPos;
+		iPos = 0;
+		while( iLimit < iBytes ) {
+			int iCount = in.read( buf, iLimit, buf.length - iLimit );
+			if( iCount < 0 ) {
+				throw new EOFException( "Unexpected end of binary data" );
+			}
+			iLimit += iCount;
+			lRead += iCount;
+		}
+	}
+}
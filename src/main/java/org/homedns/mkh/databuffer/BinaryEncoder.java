@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming binary encoder of the data buffer rows. Format (version 1):
+ * <pre>
+ * header:  magic "DBB", version byte, varint dictionary limit, 
+ *          varint column count, column name and type name strings
+ * rows:    1 byte row marker, null bitmap (column count + 7) / 8 bytes,
+ *          not null values in column order
+ * end:     0 byte
+ * </pre>
+ * Values are encoded by the column type:
+ * BYTE, SHORT, INT, LONG - zigzag varint, TIMESTAMP - zigzag varint epoch 
+ * milliseconds, DOUBLE - 8 bytes, FLOAT - 4 bytes, BOOLEAN - 1 byte, 
+ * HEXSTRING - varint length prefixed UTF-8 bytes, STRING and ASCIISTRING - 
+ * varint dictionary code, 0 is followed by the new string which is added to 
+ * the column dictionary until dictionary limit is reached, otherwise string
+ * is dictionary index + 1. The encoder isn't thread safe.
+ *
+ */
+class BinaryEncoder {
+	public static final byte[] MAGIC = { 'D', 'B', 'B' };
+	public static final int VERSION = 1;
+	public static final int DICTIONARY_LIMIT = 4096;
+	public static final int ROW = 1;
+	public static final int END = 0;
+	private static final int BUFFER_SIZE = 8192;
+
+	private OutputStream out;
+	private Column[] cols;
+	private Type[] types;
+	private List< Map< String, Integer > > dictionaries;
+	private byte[] buf = new byte[ BUFFER_SIZE ];
+	private int iPos = 0;
+	private long lWritten = 0;
+
+	/**
+	 * @param out
+	 *            the target output stream
+	 * @param cols
+	 *            the columns in the column number order
+	 */
+	public BinaryEncoder( OutputStream out, Column[] cols ) {
+		this.out = out;
+		this.cols = cols;
+		types = new Type[ cols.length ];
+		dictionaries = new ArrayList< >( cols.length );
+		for( int iCol = 0; iCol < cols.length; iCol++ ) {
+			types[ iCol ] = cols[ iCol ].getType( );
+			dictionaries.add( isDictionaryType( types[ iCol ] ) ? new HashMap< >( ) : null );
+		}
+	}
+
+	/**
+	 * Returns true if values of the specified type are dictionary encoded
+	 * 
+	 * @param type
+	 *            the data type
+	 * 
+	 * @return true if values are dictionary encoded
+	 */
+	public static boolean isDictionaryType( Type type ) {
+		return( type == Type.STRING || type == Type.ASCIISTRING );
+	}
+
+	/**
+	 * Writes header
+	 * 
+	 * @throws IOException
+	 */
+	public void header( ) throws IOException {
+		for( byte b : MAGIC ) {
+			write( b );
+		}
+		write( VERSION );
+		varint( DICTIONARY_LIMIT );
+		varint( cols.length );
+		for( Column col : cols ) {
+			string( col.getName( ) );
+			string( col.getType( ).getName( ) );
+		}
+	}
+
+	/**
+	 * Writes row
+	 * 
+	 * @param values
+	 *            the row values in the column number order
+	 * 
+	 * @throws IOException
+	 */
+	public void row( Object[] values ) throws IOException {
+		write( ROW );
+		for( int iByte = 0; iByte < values.length; iByte += 8 ) {
+			int iBits = 0;
+			for( int iBit = 0; iBit < 8 && iByte + iBit < values.length; iBit++ ) {
+				if( values[ iByte + iBit ] == null ) {
+					iBits |= 1 << iBit;
+				}
+			}
+			write( iBits );
+		}
+		for( int iCol = 0; iCol < values.length; iCol++ ) {
+			if( values[ iCol ] != null ) {
+				value( iCol, values[ iCol ] );
+			}
+		}
+	}
+
+	/**
+	 * Writes end of rows marker and flushes buffered bytes to the stream
+	 * 
+	 * @throws IOException
+	 */
+	public void end( ) throws IOException {
+		write( END );
+		flush( );
+	}
+
+	/**
+	 * Returns number of bytes written including buffered ones
+	 *
+	 * @return the number of bytes
+	 */
+	public long getWritten( ) {
+		return( lWritten + iPos );
+	}
+
+	/**
+	 * Flushes buffered bytes to the stream
+	 *
+	 * @throws IOException
+	 */
+	public void flush( ) throws IOException {
+		out.write( buf, 0, iPos );
+		lWritten += iPos;
+		iPos = 0;
+		out.flush( );
+	}
+
+	/**
+	 * Writes not null value
+	 * 
+	 * @param iCol
+	 *            the column index
+	 * @param value
+	 *            the value
+	 * 
+	 * @throws IOException
+	 */
+	private void value( int iCol, Object value ) throws IOException {
+		switch( types[ iCol ] ) {
+			case BYTE:
+			case SHORT:
+			case INT:
+			case LONG:
+				varint( zigzag( toNumber( iCol, value ).longValue( ) ) );
+				break;
+			case TIMESTAMP:
+				varint( zigzag( value instanceof Date ? ( ( Date )value ).getTime( ) : toNumber( iCol, value ).longValue( ) ) );
+				break;
+			case DOUBLE:
+				fixed( Double.doubleToLongBits( toNumber( iCol, value ).doubleValue( ) ), 8 );
+				break;
+			case FLOAT:
+				fixed( Float.floatToIntBits( toNumber( iCol, value ).floatValue( ) ), 4 );
+				break;
+			case BOOLEAN:
+				write( ( value instanceof Boolean ? ( Boolean )value : Boolean.parseBoolean( value.toString( ) ) ) ? 1 : 0 );
+				break;
+			case STRING:
+			case ASCIISTRING:
+				String sValue = value.toString( );
+				Map< String, Integer > dictionary = dictionaries.get( iCol );
+				Integer iCode = dictionary.get( sValue );
+				if( iCode != null ) {
+					varint( iCode );
+				} else {
+					varint( 0 );
+					string( sValue );
+					if( dictionary.size( ) < DICTIONARY_LIMIT ) {
+						dictionary.put( sValue, dictionary.size( ) + 1 );
+					}
+				}
+				break;
+			default:
+				string( value.toString( ) );
+		}
+	}
+
+	/**
+	 * Returns value as number, text is parsed by the column type codec
+	 * 
+	 * @param iCol
+	 *            the column index
+	 * @param value
+	 *            the value
+	 * 
+	 * @return the number
+	 * 
+	 * @throws IOException
+	 */
+	private Number toNumber( int iCol, Object value ) throws IOException {
+		if( value instanceof Number ) {
+			return( ( Number )value );
+		}
+		try {
+			Object converted = TypeCodec.get( types[ iCol ] ).convert( value.toString( ) );
+			return( converted instanceof Date ? ( ( Date )converted ).getTime( ) : ( Number )converted );
+		}
+		catch( ParseException | RuntimeException e ) {
+			throw new IOException( "Invalid " + types[ iCol ].getName( ) + " value: " + value, e );
+		}
+	}
+
+	/**
+	 * Writes varint length prefixed UTF-8 string
+	 * 
+	 * @param s
+	 *            the string
+	 * 
+	 * @throws IOException
+	 */
+	private void string( String s ) throws IOException {
+		byte[] bytes = s.getBytes( StandardCharsets.UTF_8 );
+		varint( bytes.length );
+		if( bytes.length > buf.length - iPos ) {
+			flush( );
+			if( bytes.length > buf.length ) {
+				out.write( bytes );
+				lWritten += bytes.length;
+				return;
+			}
+		}
+		System.arraycopy( bytes, 0, buf, iPos, bytes.length );
+		iPos += bytes.length;
+	}
+
+	/**
+	 * Returns zigzag encoded value, small negative values are encoded as small
+	 * positive ones
+	 * 
+	 * @param lValue
+	 *            the value
+	 * 
+	 * @return the encoded value
+	 */
+	private static long zigzag( long lValue ) {
+		return( ( lValue << 1 ) ^ ( lValue >> 63 ) );
+	}
+
+	/**
+	 * Writes unsigned varint, 7 bits per byte, low bits first
+	 * 
+	 * @param lValue
+	 *            the value
+	 * 
+	 * @throws IOException
+	 */
+	private void varint( long lValue ) throws IOException {
+		ensure( 10 );
+		while( ( lValue & ~0x7FL ) != 0 ) {
+			buf[ iPos++ ] = ( byte )( ( lValue & 0x7F ) | 0x80 );
+			lValue >>>= 7;
+		}
+		buf[ iPos++ ] = ( byte )lValue;
+	}
+
+	/**
+	 * Writes fixed length big endian value
+	 * 
+	 * @param lValue
+	 *            the value
+	 * @param iBytes
+	 *            the number of bytes
+	 * 
+	 * @throws IOException
+	 */
+	private void fixed( long lValue, int iBytes ) throws IOException {
+		ensure( iBytes );
+		for( int i = iBytes - 1; i >= 0; i-- ) {
+			buf[ iPos++ ] = ( byte )( lValue >>> ( i * 8 ) );
+		}
+	}
+
+	/**
+	 * Writes byte
+	 * 
+	 * @param iByte
+	 *            the byte
+	 * 
+	 * @throws IOException
+	 */
+	private void write( int iByte ) throws IOException {
+		ensure( 1 );
+		buf[ iPos++ ] = ( byte )iByte;
+	}
+
+	/**
+	 * Flushes buffer if it hasn't space for specified number of bytes
+	 * 
+	 * @param iBytes
+	 *            the number of bytes
+	 * 
+	 * @throws IOException
+	 */
+	private void ensure( int iBytes ) throws IOException {
+		if( iPos + iBytes > buf.length ) {
+			out.write( buf, 0, iPos );
+			lWritten += iPos;
+			iPos = 0;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces identical concurrent retrieves. The first data buffer which 
+ * joins the retrieve becomes the leader and executes the query, the others 
+ * wait for the leader rows and populate their own copies. Retrieves are 
+ * identical if they have the same {@link ResultCache.Key}, i.e. the same 
+ * data buffer, query, arguments and update table generation, so a retrieve 
+ * which follows a save never joins the retrieve started before it.
+ *
+ */
+public class Coalescer {
+	private ConcurrentHashMap< ResultCache.Key, Call > calls;
+
+	public Coalescer( ) {
+		calls = new ConcurrentHashMap< >( );
+	}
+
+	/**
+	 * Joins the retrieve in flight or starts new one
+	 * 
+	 * @param key
+	 *            the retrieve key
+	 * 
+	 * @return the retrieve call, the caller is the leader if
+	 *         {@link Call#isLeader()} returns true
+	 */
+	public Call join( ResultCache.Key key ) {
+		Call call = new Call( key );
+		Call joined = calls.compute( 
+			key, 
+			( k, running ) -> {
+				if( running == null ) {
+					return( call );
+				}
+				running.waiters.incrementAndGet( );
+				return( running );
+			}
+		);
+		return( joined == call ? call : new Call( joined ) );
+	}
+
+	/**
+	 * Returns number of retrieves in flight
+	 * 
+	 * @return the number of retrieves in flight
+	 */
+	public int size( ) {
+		return( calls.size( ) );
+	}
+
+	/**
+	 * Retrieve call
+	 */
+	public class Call {
+		private ResultCache.Key key;
+		private CompletableFuture< List< Object[] > > result;
+		private AtomicInteger waiters;
+		private boolean bLeader;
+
+		private Call( ResultCache.Key key ) {
+			this.key = key;
+			result = new CompletableFuture< >( );
+			waiters = new AtomicInteger( );
+			bLeader = true;
+		}
+
+		private Call( Call leader ) {
+			key = leader.key;
+			result = leader.result;
+			waiters = leader.waiters;
+		}
+
+		/**
+		 * Returns true if the caller executes the query
+		 * 
+		 * @return true if the caller is the leader
+		 */
+		public boolean isLeader( ) {
+			return( bLeader );
+		}
+
+		/**
+		 * Closes the call for new waiters, it's called by the leader when the 
+		 * query is executed.
+		 * 
+		 * @return true if there are waiters for the rows
+		 */
+		public boolean leave( ) {
+			calls.remove( key, this );
+			return( waiters.get( ) > 0 );
+		}
+
+		/**
+		 * Passes rows to the waiters
+		 * 
+		 * @param rows
+		 *            the rows, they must not be changed after
+		 */
+		public void complete( List< Object[] > rows ) {
+			result.complete( rows );
+		}
+
+		/**
+		 * Passes leader error to the waiters
+		 * 
+		 * @param e
+		 *            the error
+		 */
+		public void fail( Throwable e ) {
+			calls.remove( key, this );
+			result.completeExceptionally( e );
+		}
+
+		/**
+		 * Waits for the leader rows
+		 * 
+		 * @return the rows
+		 * 
+		 * @throws SQLException
+		 */
+		public List< Object[] > await( ) throws SQLException {
+			try {
+				return( result.get( ) );
+			}
+			catch( InterruptedException e ) {
+				Thread.currentThread( ).interrupt( );
+				throw new SQLException( "coalesced retrieve is interrupted", e );
+			}
+			catch( ExecutionException e ) {
+				Throwable cause = e.getCause( );
+				throw new SQLException( cause.getMessage( ), cause );
+			}
+		}
+	}
+}
@@ -27,7 +27,7 @@ import com.google.gson.annotations.SerializedName;
  * Data buffer column object
  *
  */
-public class Column implements Serializable {
+public class Column implements Serializable, Cloneable {
 	private static final long serialVersionUID = -4625992839511135960L;
 
 	/**
@@ -340,6 +340,25 @@ public class Column implements Serializable {
 		this.values = values;
 	}
 	
+	/**
+	 * Returns copy of the column with the specified values, the column itself
+	 * isn't changed
+	 * 
+	 * @param values the values array of the copy
+	 * 
+	 * @return the column copy
+	 */
+	public Column withValues( Value[] values ) {
+		try {
+			Column col = ( Column )super.clone( );
+			col.values = values;
+			return( col );
+		}
+		catch( CloneNotSupportedException e ) {
+			throw new IllegalStateException( e );
+		}
+	}
+	
 	/**
 	 * Returns dropdown databuffer name
 	 * 
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.sql.Timestamp;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Column text format, converts column values from and to the text by the 
+ * column type {@link org.homedns.mkh.databuffer.Type} and the column format
+ * pattern {@link org.homedns.mkh.databuffer.Column#getPattern()}. Pattern is 
+ * the date time pattern for TIMESTAMP columns, date only patterns are parsed
+ * to the start of the day, and the decimal format pattern for the numeric 
+ * columns, it's ignored for other types. Columns without pattern are 
+ * converted by the type codec {@link org.homedns.mkh.databuffer.TypeCodec}.
+ * Decimal format isn't thread safe, so the column format isn't thread safe.
+ *
+ */
+class ColumnFormat {
+	private static final ZoneId ZONE = ZoneId.systemDefault( );
+
+	private Column col;
+	private TypeCodec codec;
+	private DateTimeFormatter dateFormat;
+	private DecimalFormat numberFormat;
+
+	/**
+	 * @param col
+	 *            the column
+	 */
+	public ColumnFormat( Column col ) {
+		this.col = col;
+		codec = TypeCodec.get( col.getType( ) );
+		String sPattern = col.getPattern( );
+		if( sPattern == null || sPattern.isEmpty( ) ) {
+			return;
+		}
+		switch( col.getType( ) ) {
+			case TIMESTAMP:
+				dateFormat = DateTimeFormatter.ofPattern( sPattern );
+				break;
+			case BYTE:
+			case SHORT:
+			case INT:
+			case LONG:
+			case DOUBLE:
+			case FLOAT:
+				numberFormat = new DecimalFormat( sPattern, DecimalFormatSymbols.getInstance( Locale.ROOT ) );
+				break;
+			default:
+		}
+	}
+
+	/**
+	 * Returns column
+	 * 
+	 * @return the column
+	 */
+	public Column getColumn( ) {
+		return( col );
+	}
+
+	/**
+	 * Formats value to the text.
+	 * 
+	 * @param value
+	 *            the value
+	 * 
+	 * @return the text or null if value is null
+	 */
+	public String format( Object value ) {
+		if( value instanceof Date && dateFormat != null ) {
+			return( dateFormat.format( 
+				LocalDateTime.ofInstant( Instant.ofEpochMilli( ( ( Date )value ).getTime( ) ), ZONE ) 
+			) );
+		}
+		if( value instanceof Number && numberFormat != null ) {
+			return( numberFormat.format( value ) );
+		}
+		return( codec.format( value ) );
+	}
+
+	/**
+	 * Parses text to the value of the column type.
+	 * 
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return the value or null if text is null or empty, empty text of the 
+	 *         string columns is kept as is
+	 * 
+	 * @throws ParseException
+	 */
+	public Object parse( String sValue ) throws ParseException {
+		try {
+			if( sValue == null || sValue.isEmpty( ) ) {
+				return( codec.parse( sValue ) );
+			}
+			if( dateFormat != null ) {
+				return( parseDate( sValue ) );
+			}
+			if( numberFormat != null ) {
+				return( parseNumber( sValue ) );
+			}
+			return( codec.parse( sValue ) );
+		}
+		catch( ParseException | NumberFormatException | DateTimeParseException e ) {
+			ParseException ex = new ParseException( col.getName( ) + ": " + e.getMessage( ), 0 );
+			ex.initCause( e );
+			throw ex;
+		}
+	}
+
+	/**
+	 * Parses date by the column pattern
+	 * 
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return the timestamp
+	 */
+	private Timestamp parseDate( String sValue ) {
+		TemporalAccessor parsed = dateFormat.parseBest( sValue, LocalDateTime::from, LocalDate::from );
+		LocalDateTime dateTime = parsed instanceof LocalDate ? 
+			( ( LocalDate )parsed ).atStartOfDay( ) : ( LocalDateTime )parsed;
+		return( Timestamp.from( dateTime.atZone( ZONE ).toInstant( ) ) );
+	}
+
+	/**
+	 * Parses number by the column pattern, the whole text must be parsed
+	 * 
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return the number of the column type
+	 * 
+	 * @throws ParseException
+	 */
+	private Number parseNumber( String sValue ) throws ParseException {
+		ParsePosition pos = new ParsePosition( 0 );
+		Number number = numberFormat.parse( sValue, pos );
+		if( number == null || pos.getIndex( ) < sValue.length( ) ) {
+			throw new ParseException( "Unparseable number: \"" + sValue + "\"", pos.getErrorIndex( ) );
+		}
+		switch( col.getType( ) ) {
+			case LONG:
+				return( number.longValue( ) );
+			case DOUBLE:
+				return( number.doubleValue( ) );
+			case FLOAT:
+				return( number.floatValue( ) );
+			default:
+				return( number.intValue( ) );
+		}
+	}
+}
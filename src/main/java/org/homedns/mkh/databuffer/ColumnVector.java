@@ -0,0 +1,682 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+
+/**
+ * Column storage of the columnar data buffer. Values are kept in the primitive
+ * array chosen by the column type, nulls are kept in the separate bitmap.
+ * Row indexes are 0-based. Values are returned as the storage type rather
+ * than the driver type, i.e. Integer for BYTE and SHORT, Double for FLOAT 
+ * columns, so their classes may differ from the web rowset storage ones.
+ *
+ */
+abstract class ColumnVector {
+	private static final int INITIAL_CAPACITY = 16;
+
+	protected BitSet nulls = new BitSet( );
+	protected int iSize = 0;
+
+	/**
+	 * Creates column vector for specified data type
+	 *
+	 * @param type
+	 *            the column data type
+	 *
+	 * @return the column vector
+	 */
+	public static ColumnVector create( Type type ) {
+		switch( type ) {
+			case BYTE:
+			case SHORT:
+			case INT:
+				return( new IntVector( ) );
+			case LONG:
+				return( new LongVector( ) );
+			case TIMESTAMP:
+				return( new TimestampVector( ) );
+			case DOUBLE:
+			case FLOAT:
+				return( new DoubleVector( ) );
+			case BOOLEAN:
+				return( new BooleanVector( ) );
+			default:
+				return( new StringVector( ) );
+		}
+	}
+
+	/**
+	 * Returns number of values
+	 *
+	 * @return the number of values
+	 */
+	public int size( ) {
+		return( iSize );
+	}
+
+	/**
+	 * Returns true if value is null
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @return true if value is null
+	 */
+	public boolean isNull( int iRow ) {
+		return( nulls.get( iRow ) );
+	}
+
+	/**
+	 * Returns value as object
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @return the value or null
+	 */
+	public Object get( int iRow ) {
+		return( isNull( iRow ) ? null : getValue( iRow ) );
+	}
+
+	/**
+	 * Sets value
+	 *
+	 * @param iRow
+	 *            the row index
+	 * @param value
+	 *            the value to set or null
+	 */
+	public void set( int iRow, Object value ) {
+		if( value == null ) {
+			nulls.set( iRow );
+		} else {
+			nulls.clear( iRow );
+			setValue( iRow, value );
+		}
+	}
+
+	/**
+	 * Appends value
+	 *
+	 * @param value
+	 *            the value to append or null
+	 */
+	public void add( Object value ) {
+		ensureCapacity( iSize + 1 );
+		set( iSize++, value );
+	}
+
+	/**
+	 * Appends value of the specified result set column
+	 *
+	 * @param rs
+	 *            the result set
+	 * @param iCol
+	 *            the result set column index
+	 *
+	 * @throws SQLException
+	 */
+	public void read( ResultSet rs, int iCol ) throws SQLException {
+		ensureCapacity( iSize + 1 );
+		readValue( rs, iCol, iSize );
+		if( rs.wasNull( ) ) {
+			nulls.set( iSize );
+		}
+		iSize++;
+	}
+
+	/**
+	 * Binds value to the statement parameter
+	 *
+	 * @param stmt
+	 *            the statement
+	 * @param iParm
+	 *            the parameter index
+	 * @param iRow
+	 *            the row index
+	 * @param iSQLType
+	 *            the parameter sql type
+	 *
+	 * @throws SQLException
+	 */
+	public void bind( PreparedStatement stmt, int iParm, int iRow, int iSQLType ) throws SQLException {
+		if( isNull( iRow ) ) {
+			stmt.setNull( iParm, iSQLType );
+		} else {
+			bindValue( stmt, iParm, iRow );
+		}
+	}
+
+	/**
+	 * Writes value as json
+	 *
+	 * @param enc
+	 *            the json encoder
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @throws IOException
+	 */
+	public void write( JsonEncoder enc, int iRow ) throws IOException {
+		if( isNull( iRow ) ) {
+			enc.nullValue( );
+		} else {
+			writeValue( enc, iRow );
+		}
+	}
+
+	/**
+	 * Removes value, the following values are shifted
+	 *
+	 * @param iRow
+	 *            the row index
+	 */
+	public void remove( int iRow ) {
+		removeValue( iRow );
+		shift( nulls, iRow, iSize );
+		iSize--;
+	}
+
+	/**
+	 * Removes all values
+	 */
+	public void clear( ) {
+		iSize = 0;
+		nulls.clear( );
+	}
+
+	/**
+	 * Returns new capacity
+	 *
+	 * @param iCapacity
+	 *            the current capacity
+	 * @param iMinCapacity
+	 *            the required capacity
+	 *
+	 * @return the new capacity
+	 */
+	protected int grow( int iCapacity, int iMinCapacity ) {
+		return( Math.max( Math.max( iCapacity + ( iCapacity >> 1 ), iMinCapacity ), INITIAL_CAPACITY ) );
+	}
+
+	/**
+	 * Shifts bits following the specified one to the left by one position
+	 *
+	 * @param bits
+	 *            the bit set
+	 * @param iFrom
+	 *            the removed bit index
+	 * @param iSize
+	 *            the number of used bits
+	 */
+	protected static void shift( BitSet bits, int iFrom, int iSize ) {
+		for( int i = iFrom; i < iSize - 1; i++ ) {
+			bits.set( i, bits.get( i + 1 ) );
+		}
+		bits.clear( iSize - 1 );
+	}
+
+	/**
+	 * Ensures that the vector can hold specified number of values
+	 *
+	 * @param iMinCapacity
+	 *            the required capacity
+	 */
+	protected abstract void ensureCapacity( int iMinCapacity );
+
+	/**
+	 * Returns not null value as object
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @return the value
+	 */
+	protected abstract Object getValue( int iRow );
+
+	/**
+	 * Sets not null value
+	 *
+	 * @param iRow
+	 *            the row index
+	 * @param value
+	 *            the value to set
+	 */
+	protected abstract void setValue( int iRow, Object value );
+
+	/**
+	 * Reads value from the result set column
+	 *
+	 * @param rs
+	 *            the result set
+	 * @param iCol
+	 *            the result set column index
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException;
+
+	/**
+	 * Binds not null value to the statement parameter
+	 *
+	 * @param stmt
+	 *            the statement
+	 * @param iParm
+	 *            the parameter index
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException;
+
+	/**
+	 * Writes not null value as json
+	 *
+	 * @param enc
+	 *            the json encoder
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @throws IOException
+	 */
+	protected abstract void writeValue( JsonEncoder enc, int iRow ) throws IOException;
+
+	/**
+	 * Removes value from the values storage, the following values are shifted
+	 *
+	 * @param iRow
+	 *            the row index
+	 */
+	protected abstract void removeValue( int iRow );
+
+	/**
+	 * BYTE, SHORT and INT column vector
+	 */
+	static class IntVector extends ColumnVector {
+		private int[] values = new int[ 0 ];
+
+		public int getInt( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		public void setInt( int iRow, int iValue ) {
+			nulls.clear( iRow );
+			values[ iRow ] = iValue;
+		}
+
+		@Override
+		protected void ensureCapacity( int iMinCapacity ) {
+			if( values.length < iMinCapacity ) {
+				values = Arrays.copyOf( values, grow( values.length, iMinCapacity ) );
+			}
+		}
+
+		@Override
+		protected Object getValue( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		@Override
+		protected void setValue( int iRow, Object value ) {
+			values[ iRow ] = (
+				value instanceof Number ? ( ( Number )value ).intValue( ) : Integer.parseInt( value.toString( ) )
+			);
+		}
+
+		@Override
+		protected void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException {
+			values[ iRow ] = rs.getInt( iCol );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException {
+			stmt.setInt( iParm, values[ iRow ] );
+		}
+
+		@Override
+		protected void removeValue( int iRow ) {
+			System.arraycopy( values, iRow + 1, values, iRow, iSize - iRow - 1 );
+		}
+
+		@Override
+		protected void writeValue( JsonEncoder enc, int iRow ) throws IOException {
+			enc.value( values[ iRow ] );
+		}
+	}
+
+	/**
+	 * LONG column vector
+	 */
+	static class LongVector extends ColumnVector {
+		protected long[] values = new long[ 0 ];
+
+		public long getLong( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		public void setLong( int iRow, long lValue ) {
+			nulls.clear( iRow );
+			values[ iRow ] = lValue;
+		}
+
+		@Override
+		protected void ensureCapacity( int iMinCapacity ) {
+			if( values.length < iMinCapacity ) {
+				values = Arrays.copyOf( values, grow( values.length, iMinCapacity ) );
+			}
+		}
+
+		@Override
+		protected Object getValue( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		@Override
+		protected void setValue( int iRow, Object value ) {
+			values[ iRow ] = (
+				value instanceof Number ? ( ( Number )value ).longValue( ) : Long.parseLong( value.toString( ) )
+			);
+		}
+
+		@Override
+		protected void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException {
+			values[ iRow ] = rs.getLong( iCol );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException {
+			stmt.setLong( iParm, values[ iRow ] );
+		}
+
+		@Override
+		protected void removeValue( int iRow ) {
+			System.arraycopy( values, iRow + 1, values, iRow, iSize - iRow - 1 );
+		}
+
+		@Override
+		protected void writeValue( JsonEncoder enc, int iRow ) throws IOException {
+			enc.value( values[ iRow ] );
+		}
+	}
+
+	/**
+	 * TIMESTAMP column vector, keeps epoch milliseconds and sub-millisecond 
+	 * nanoseconds in the parallel array
+	 */
+	static class TimestampVector extends LongVector {
+		private int[] nanos = new int[ 0 ];
+
+		@Override
+		public void setLong( int iRow, long lValue ) {
+			super.setLong( iRow, lValue );
+			nanos[ iRow ] = 0;
+		}
+
+		@Override
+		protected void ensureCapacity( int iMinCapacity ) {
+			super.ensureCapacity( iMinCapacity );
+			if( nanos.length < values.length ) {
+				nanos = Arrays.copyOf( nanos, values.length );
+			}
+		}
+
+		@Override
+		protected Object getValue( int iRow ) {
+			Timestamp ts = new Timestamp( values[ iRow ] );
+			if( nanos[ iRow ] != 0 ) {
+				ts.setNanos( ts.getNanos( ) + nanos[ iRow ] );
+			}
+			return( ts );
+		}
+
+		@Override
+		protected void setValue( int iRow, Object value ) {
+			if( value instanceof Date ) {
+				setTime( iRow, ( Date )value );
+			} else {
+				values[ iRow ] = ( ( Number )value ).longValue( );
+				nanos[ iRow ] = 0;
+			}
+		}
+
+		@Override
+		protected void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException {
+			Timestamp ts = rs.getTimestamp( iCol );
+			if( ts == null ) {
+				values[ iRow ] = 0L;
+				nanos[ iRow ] = 0;
+			} else {
+				setTime( iRow, ts );
+			}
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException {
+			stmt.setTimestamp( iParm, ( Timestamp )getValue( iRow ) );
+		}
+
+		@Override
+		protected void removeValue( int iRow ) {
+			super.removeValue( iRow );
+			System.arraycopy( nanos, iRow + 1, nanos, iRow, iSize - iRow - 1 );
+		}
+
+		@Override
+		protected void writeValue( JsonEncoder enc, int iRow ) throws IOException {
+			enc.timestamp( values[ iRow ] );
+		}
+
+		/**
+		 * Sets date milliseconds and timestamp sub-millisecond nanoseconds
+		 *
+		 * @param iRow
+		 *            the row index
+		 * @param date
+		 *            the date or timestamp
+		 */
+		private void setTime( int iRow, Date date ) {
+			values[ iRow ] = date.getTime( );
+			nanos[ iRow ] = ( date instanceof Timestamp ) ? ( ( Timestamp )date ).getNanos( ) % 1000000 : 0;
+		}
+	}
+
+	/**
+	 * DOUBLE and FLOAT column vector
+	 */
+	static class DoubleVector extends ColumnVector {
+		private double[] values = new double[ 0 ];
+
+		public double getDouble( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		public void setDouble( int iRow, double dValue ) {
+			nulls.clear( iRow );
+			values[ iRow ] = dValue;
+		}
+
+		@Override
+		protected void ensureCapacity( int iMinCapacity ) {
+			if( values.length < iMinCapacity ) {
+				values = Arrays.copyOf( values, grow( values.length, iMinCapacity ) );
+			}
+		}
+
+		@Override
+		protected Object getValue( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		@Override
+		protected void setValue( int iRow, Object value ) {
+			values[ iRow ] = (
+				value instanceof Number ? ( ( Number )value ).doubleValue( ) : Double.parseDouble( value.toString( ) )
+			);
+		}
+
+		@Override
+		protected void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException {
+			values[ iRow ] = rs.getDouble( iCol );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException {
+			stmt.setDouble( iParm, values[ iRow ] );
+		}
+
+		@Override
+		protected void removeValue( int iRow ) {
+			System.arraycopy( values, iRow + 1, values, iRow, iSize - iRow - 1 );
+		}
+
+		@Override
+		protected void writeValue( JsonEncoder enc, int iRow ) throws IOException {
+			enc.value( values[ iRow ] );
+		}
+	}
+
+	/**
+	 * BOOLEAN column vector
+	 */
+	static class BooleanVector extends ColumnVector {
+		private BitSet values = new BitSet( );
+
+		public boolean getBoolean( int iRow ) {
+			return( values.get( iRow ) );
+		}
+
+		public void setBoolean( int iRow, boolean bValue ) {
+			nulls.clear( iRow );
+			values.set( iRow, bValue );
+		}
+
+		@Override
+		public void clear( ) {
+			super.clear( );
+			values.clear( );
+		}
+
+		@Override
+		protected void ensureCapacity( int iMinCapacity ) {
+		}
+
+		@Override
+		protected Object getValue( int iRow ) {
+			return( values.get( iRow ) );
+		}
+
+		@Override
+		protected void setValue( int iRow, Object value ) {
+			values.set(
+				iRow,
+				value instanceof Boolean ? ( Boolean )value : Boolean.parseBoolean( value.toString( ) )
+			);
+		}
+
+		@Override
+		protected void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException {
+			values.set( iRow, rs.getBoolean( iCol ) );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException {
+			stmt.setBoolean( iParm, values.get( iRow ) );
+		}
+
+		@Override
+		protected void removeValue( int iRow ) {
+			shift( values, iRow, iSize );
+		}
+
+		@Override
+		protected void writeValue( JsonEncoder enc, int iRow ) throws IOException {
+			enc.value( values.get( iRow ) );
+		}
+	}
+
+	/**
+	 * STRING, HEXSTRING and ASCIISTRING column vector
+	 */
+	static class StringVector extends ColumnVector {
+		private String[] values = new String[ 0 ];
+
+		@Override
+		public void set( int iRow, Object value ) {
+			super.set( iRow, value );
+			if( value == null ) {
+				values[ iRow ] = null;
+			}
+		}
+
+		@Override
+		public void clear( ) {
+			Arrays.fill( values, 0, iSize, null );
+			super.clear( );
+		}
+
+		@Override
+		protected void ensureCapacity( int iMinCapacity ) {
+			if( values.length < iMinCapacity ) {
+				values = Arrays.copyOf( values, grow( values.length, iMinCapacity ) );
+			}
+		}
+
+		@Override
+		protected Object getValue( int iRow ) {
+			return( values[ iRow ] );
+		}
+
+		@Override
+		protected void setValue( int iRow, Object value ) {
+			values[ iRow ] = value.toString( );
+		}
+
+		@Override
+		protected void readValue( ResultSet rs, int iCol, int iRow ) throws SQLException {
+			values[ iRow ] = rs.getString( iCol );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, int iRow ) throws SQLException {
+			stmt.setString( iParm, values[ iRow ] );
+		}
+
+		@Override
+		protected void removeValue( int iRow ) {
+			System.arraycopy( values, iRow + 1, values, iRow, iSize - iRow - 1 );
+			values[ iSize - 1 ] = null;
+		}
+
+		@Override
+		protected void writeValue( JsonEncoder enc, int iRow ) throws IOException {
+			enc.value( values[ iRow ] );
+		}
+	}
+}
@@ -0,0 +1,571 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import javax.sql.DataSource;
+import javax.sql.rowset.WebRowSet;
+import org.apache.log4j.Logger;
+import org.homedns.mkh.databuffer.api.DataBufferManager;
+import org.homedns.mkh.databuffer.api.DataRow;
+
+/**
+ * Columnar data buffer. Rows are kept column by column in the primitive arrays
+ * chosen by the column type {@link org.homedns.mkh.databuffer.Type}, i.e.
+ * int[] for BYTE, SHORT, INT, long[] for LONG, epoch milliseconds long[] for
+ * TIMESTAMP, double[] for DOUBLE, FLOAT, nulls are kept in the bitmaps. 
+ * Original values are kept only for the updated cells and only keyset server
+ * paging is supported.
+ * Use it for large read mostly data buffers, to switch it on set table
+ * property "storage": "columnar" in the data buffer description.
+ *
+ */
+public class ColumnarDataBuffer extends AbstractDataBuffer {
+	private static final Logger LOG = Logger.getLogger( ColumnarDataBuffer.class );
+
+	private ColumnVector[] vectors;
+	private int[] aiSQLType;
+	private int iRowCount = 0;
+	private int iCurrentRow = 0;
+	private Object[] insertValues;
+	private ArrayList< RowChange > changes;
+	private BitSet inserted;
+	private List< Object[] > deletedRows;
+	private WebRowSet parent;
+
+	/**
+	 * @param desc
+	 *            the data buffer description
+	 * @param ds
+	 *            the data source
+	 *
+	 * @throws Exception
+	 */
+	public ColumnarDataBuffer( DataBufferDesc desc, DataSource ds ) throws Exception {
+		super( desc, ds );
+		Column[] cols = desc.getColumns( );
+		vectors = new ColumnVector[ cols.length ];
+		aiSQLType = new int[ cols.length ];
+		for( Column col : cols ) {
+			vectors[ col.getColNum( ) ] = ColumnVector.create( col.getType( ) );
+			aiSQLType[ col.getColNum( ) ] = col.getType( ).getSQLType( );
+		}
+		insertValues = new Object[ cols.length ];
+		changes = new ArrayList< >( );
+		inserted = new BitSet( );
+		deletedRows = new ArrayList< >( );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#close()
+	 */
+	@Override
+	public void close( ) {
+		clear( );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#closeConn()
+	 */
+	@Override
+	public void closeConn( ) throws SQLException {
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#clear()
+	 */
+	@Override
+	protected void clear( ) {
+		for( ColumnVector vector : vectors ) {
+			vector.clear( );
+		}
+		iRowCount = 0;
+		iCurrentRow = 0;
+		changes.clear( );
+		inserted.clear( );
+		deletedRows.clear( );
+		parent = null;
+	}
+
+	/**
+	 * Returns read only web rowset filled with this data buffer rows. The 
+	 * rowset is a copy of all rows, it's costly to build, so it's built on the 
+	 * first call and returned by the next calls until the data buffer is 
+	 * changed. Changes made in the rowset aren't reflected in this data 
+	 * buffer and must not be made, because the rowset is shared by the 
+	 * callers. Data buffer doesn't use it itself.
+	 *
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getParent()
+	 */
+	@Override
+	public WebRowSet getParent( ) {
+		try {
+			if( parent == null ) {
+				parent = copyRows( );
+			}
+			parent.beforeFirst( );
+			return( parent );
+		}
+		catch( SQLException e ) {
+			throw new IllegalStateException( e );
+		}
+	}
+
+	/**
+	 * Copies data buffer rows to the new read only web rowset
+	 * 
+	 * @return the web rowset
+	 * 
+	 * @throws SQLException
+	 */
+	private WebRowSet copyRows( ) throws SQLException {
+		WebRowSet wrs = DataBufferManager.getRowSetFactory( ).createWebRowSet( );
+		wrs.setMetaData( desc.getMetaData( ) );
+		wrs.setCommand( getCommand( ) );
+		wrs.setTableName( desc.getTable( ).getUpdateTableName( ) );
+		for( int iRow = 0; iRow < iRowCount; iRow++ ) {
+			wrs.moveToInsertRow( );
+			for( int iCol = 0; iCol < vectors.length; iCol++ ) {
+				Object value = vectors[ iCol ].get( iRow );
+				if( value == null ) {
+					wrs.updateNull( iCol + 1 );
+				} else {
+					wrs.updateObject( iCol + 1, value );
+				}
+			}
+			wrs.insertRow( );
+			wrs.moveToCurrentRow( );
+			wrs.last( );
+			wrs.setOriginalRow( );
+		}
+		wrs.setConcurrency( ResultSet.CONCUR_READ_ONLY );
+		wrs.setReadOnly( true );
+		return( wrs );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataBuffer#getRowCount()
+	 */
+	@Override
+	public int getRowCount( ) throws SQLException {
+		return( iRowCount );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getRow(int)
+	 */
+	@Override
+	public DataRow getRow( int iRow ) throws SQLException {
+		if( iRow < 0 || iRow >= iRowCount ) {
+			throw new SQLException( "Invalid row index: " + iRow );
+		}
+		return( new ColumnarRow( iRow ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#populate()
+	 */
+	@Override
+	protected int populate( ) throws SQLException {
+		LOG.debug( getDataBufferName( ) + ": " + getCommand( ) );
+		try(
+			Connection conn = getConnection( RETRIEVE );
+			PreparedStatement stmt = conn.prepareStatement( getCommand( ) )
+		) {
+			setStatement( stmt );
+			stmt.setMaxRows( getMaxRows( ) );
+			bindArgs( stmt );
+			try( ResultSet rs = stmt.executeQuery( ) ) {
+				clear( );
+				while( rs.next( ) ) {
+					for( int iCol = 0; iCol < vectors.length; iCol++ ) {
+						vectors[ iCol ].read( rs, iCol + 1 );
+					}
+					iRowCount++;
+				}
+			}
+		}
+		finally {
+			setStatement( null );
+		}
+		return( getRowCount( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#size()
+	 */
+	@Override
+	protected int size( ) {
+		return( iRowCount );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getObject(int, int)
+	 */
+	@Override
+	protected Object getObject( int iRow, int iCol ) throws SQLException {
+		return( vectors[ iCol - 1 ].get( iRow - 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#bind(java.sql.PreparedStatement, int, int, int)
+	 */
+	@Override
+	protected void bind( PreparedStatement stmt, int iParm, int iRow, int iCol ) throws SQLException {
+		vectors[ iCol - 1 ].bind( stmt, iParm, iRow - 1, aiSQLType[ iCol - 1 ] );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#writeValue(org.homedns.mkh.databuffer.JsonEncoder, int, org.homedns.mkh.databuffer.Column)
+	 */
+	@Override
+	protected void writeValue( JsonEncoder enc, int iRow, Column col ) throws IOException {
+		RowChange change = getChange( iRow );
+		if( change != null && change.cols.get( col.getColNum( ) + 1 ) ) {
+			enc.value( change.original[ col.getColNum( ) ], col.getType( ) );
+		} else {
+			vectors[ col.getColNum( ) ].write( enc, iRow - 1 );
+		}
+	}
+
+	/**
+	 * Returns original value if column was updated and changes aren't saved
+	 * yet, otherwise current value.
+	 * 
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getOriginalObject(int, int)
+	 */
+	@Override
+	protected Object getOriginalObject( int iRow, int iCol ) throws SQLException {
+		RowChange change = getChange( iRow );
+		if( change != null && change.cols.get( iCol ) ) {
+			return( change.original[ iCol - 1 ] );
+		}
+		return( getObject( iRow, iCol ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getCurrentRow()
+	 */
+	@Override
+	protected int getCurrentRow( ) {
+		return( iCurrentRow );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#setRow(int)
+	 */
+	@Override
+	protected boolean setRow( int iRow ) {
+		if( iRow < 1 || iRow > iRowCount ) {
+			return( false );
+		}
+		iCurrentRow = iRow;
+		return( true );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#moveToInsertRow()
+	 */
+	@Override
+	protected void moveToInsertRow( ) {
+		Arrays.fill( insertValues, null );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#updateObject(int, java.lang.Object)
+	 */
+	@Override
+	protected void updateObject( int iCol, Object value ) {
+		insertValues[ iCol - 1 ] = value;
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#insertRow()
+	 */
+	@Override
+	protected void insertRow( ) {
+		for( int iCol = 0; iCol < vectors.length; iCol++ ) {
+			vectors[ iCol ].add( insertValues[ iCol ] );
+		}
+		iRowCount++;
+		iCurrentRow = iRowCount;
+		inserted.set( iRowCount - 1 );
+		parent = null;
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#setObject(int, int, java.lang.Object)
+	 */
+	@Override
+	protected void setObject( int iRow, int iCol, Object value ) {
+		if( !inserted.get( iRow - 1 ) ) {
+			RowChange change = getChange( iRow, true );
+			if( !change.cols.get( iCol ) ) {
+				if( change.original == null ) {
+					change.original = new Object[ vectors.length ];
+				}
+				change.original[ iCol - 1 ] = vectors[ iCol - 1 ].get( iRow - 1 );
+				change.cols.set( iCol );
+			}
+		}
+		vectors[ iCol - 1 ].set( iRow - 1, value );
+		parent = null;
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#removeRow(int)
+	 */
+	@Override
+	protected void removeRow( int iRow ) throws SQLException {
+		if( !inserted.get( iRow - 1 ) ) {
+			Object[] values = new Object[ vectors.length ];
+			for( int iCol = 1; iCol <= vectors.length; iCol++ ) {
+				values[ iCol - 1 ] = getOriginalObject( iRow, iCol );
+			}
+			deletedRows.add( values );
+		}
+		for( ColumnVector vector : vectors ) {
+			vector.remove( iRow - 1 );
+		}
+		if( iRow <= changes.size( ) ) {
+			changes.remove( iRow - 1 );
+		}
+		// shifts inserted flags of the following rows
+		int iLength = inserted.length( );
+		if( iLength >= iRow ) {
+			BitSet tail = inserted.get( iRow, iLength );
+			inserted.clear( iRow - 1, iLength );
+			for( int i = tail.nextSetBit( 0 ); i >= 0; i = tail.nextSetBit( i + 1 ) ) {
+				inserted.set( iRow - 1 + i );
+			}
+		}
+		iRowCount--;
+		iCurrentRow = Math.min( iCurrentRow, iRowCount );
+		parent = null;
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getRowState(int)
+	 */
+	@Override
+	protected int getRowState( int iRow ) {
+		if( inserted.get( iRow - 1 ) ) {
+			return( ROW_INSERTED );
+		}
+		RowChange change = getChange( iRow );
+		return( change == null || change.cols.isEmpty( ) ? ROW_UNCHANGED : ROW_UPDATED );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getUpdatedColumns(int)
+	 */
+	@Override
+	protected BitSet getUpdatedColumns( int iRow ) {
+		RowChange change = getChange( iRow );
+		return( change == null ? new BitSet( ) : ( BitSet )change.cols.clone( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#getDeletedRows()
+	 */
+	@Override
+	protected List< Object[] > getDeletedRows( ) {
+		return( new ArrayList< >( deletedRows ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#acceptChanges()
+	 */
+	@Override
+	protected void acceptChanges( ) {
+		changes.clear( );
+		inserted.clear( );
+		deletedRows.clear( );
+	}
+
+	/**
+	 * Returns row changes.
+	 *
+	 * @param iRow
+	 *            the row index
+	 *
+	 * @return the row changes or null if the row isn't changed
+	 */
+	private RowChange getChange( int iRow ) {
+		return( iRow <= changes.size( ) ? changes.get( iRow - 1 ) : null );
+	}
+
+	/**
+	 * Returns row changes.
+	 *
+	 * @param iRow
+	 *            the row index
+	 * @param bCreate
+	 *            if true creates row changes if they don't exist
+	 *
+	 * @return the row changes
+	 */
+	private RowChange getChange( int iRow, boolean bCreate ) {
+		RowChange change = getChange( iRow );
+		if( change == null && bCreate ) {
+			while( changes.size( ) < iRow ) {
+				changes.add( null );
+			}
+			change = new RowChange( );
+			changes.set( iRow - 1, change );
+		}
+		return( change );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.AbstractDataBuffer#newInstance()
+	 */
+	@Override
+	protected AbstractDataBuffer newInstance( ) throws Exception {
+		return( new ColumnarDataBuffer( desc, dbConn ) );
+	}
+
+	/**
+	 * Updated row changes since the data buffer was retrieved or changes were
+	 * saved, inserted rows are flagged in the inserted rows bitmap only
+	 */
+	private static class RowChange {
+		private BitSet cols = new BitSet( );
+		private Object[] original;
+	}
+
+	/**
+	 * Data row view over the column vectors, primitive values are read
+	 * without boxing
+	 */
+	private class ColumnarRow implements DataRow {
+		private int iRow;
+
+		/**
+		 * @param iRow
+		 *            the row index, 0-based
+		 */
+		private ColumnarRow( int iRow ) {
+			this.iRow = iRow;
+		}
+
+		@Override
+		public int getColumnCount( ) {
+			return( vectors.length );
+		}
+
+		@Override
+		public Object getObject( int iCol ) {
+			return( vectors[ iCol ].get( iRow ) );
+		}
+
+		@Override
+		public Object getObject( String sColName ) {
+			return( getObject( findColumn( sColName ) - 1 ) );
+		}
+
+		@Override
+		public Object getOriginalObject( int iCol ) throws SQLException {
+			return( ColumnarDataBuffer.this.getOriginalObject( iRow + 1, iCol + 1 ) );
+		}
+
+		@Override
+		public boolean isNull( int iCol ) {
+			return( vectors[ iCol ].isNull( iRow ) );
+		}
+
+		@Override
+		public int getInt( int iCol ) {
+			ColumnVector vector = vectors[ iCol ];
+			if( vector.isNull( iRow ) ) {
+				return( 0 );
+			}
+			if( vector instanceof ColumnVector.IntVector ) {
+				return( ( ( ColumnVector.IntVector )vector ).getInt( iRow ) );
+			}
+			return( ( ( Number )vector.get( iRow ) ).intValue( ) );
+		}
+
+		@Override
+		public long getLong( int iCol ) {
+			ColumnVector vector = vectors[ iCol ];
+			if( vector.isNull( iRow ) ) {
+				return( 0L );
+			}
+			if( vector instanceof ColumnVector.LongVector ) {
+				return( ( ( ColumnVector.LongVector )vector ).getLong( iRow ) );
+			}
+			return( ( ( Number )vector.get( iRow ) ).longValue( ) );
+		}
+
+		@Override
+		public double getDouble( int iCol ) {
+			ColumnVector vector = vectors[ iCol ];
+			if( vector.isNull( iRow ) ) {
+				return( 0.0 );
+			}
+			if( vector instanceof ColumnVector.DoubleVector ) {
+				return( ( ( ColumnVector.DoubleVector )vector ).getDouble( iRow ) );
+			}
+			return( ( ( Number )vector.get( iRow ) ).doubleValue( ) );
+		}
+
+		@Override
+		public boolean getBoolean( int iCol ) {
+			ColumnVector vector = vectors[ iCol ];
+			if( vector.isNull( iRow ) ) {
+				return( false );
+			}
+			if( vector instanceof ColumnVector.BooleanVector ) {
+				return( ( ( ColumnVector.BooleanVector )vector ).getBoolean( iRow ) );
+			}
+			return( Boolean.parseBoolean( vector.get( iRow ).toString( ) ) );
+		}
+
+		@Override
+		public String getString( int iCol ) {
+			Object value = vectors[ iCol ].get( iRow );
+			return( value == null ? null : value.toString( ) );
+		}
+
+		@Override
+		public Timestamp getTimestamp( int iCol ) {
+			return( ( Timestamp )vectors[ iCol ].get( iRow ) );
+		}
+
+		@Override
+		public Serializable[] toArray( ) {
+			Serializable[] row = new Serializable[ vectors.length ];
+			for( int iCol = 0; iCol < vectors.length; iCol++ ) {
+				row[ iCol ] = ( Serializable )vectors[ iCol ].get( iRow );
+			}
+			return( row );
+		}
+	}
+}
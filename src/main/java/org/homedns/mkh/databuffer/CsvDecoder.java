@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV decoder of the data buffer rows. The first record 
+ * must be the header with the column names, header columns are matched with 
+ * the data buffer columns by name, data buffer columns missing in the header
+ * are set to null. Records may be separated by CRLF, LF or CR, empty lines 
+ * are skipped. Empty field is parsed as null, quoted empty field "" of the 
+ * string columns as empty string, other values are parsed by the column type
+ * and pattern {@link org.homedns.mkh.databuffer.ColumnFormat}. The decoder 
+ * isn't thread safe.
+ *
+ */
+class CsvDecoder {
+	private static final int BUFFER_SIZE = 8192;
+
+	private Reader in;
+	private char[] buf = new char[ BUFFER_SIZE ];
+	private int iPos = 0;
+	private int iLimit = 0;
+	private long lRead = 0;
+	private int iRecord = 0;
+	private ColumnFormat[] formats;
+	private int[] aiTarget;
+	private List< String > fields = new ArrayList< >( );
+	private StringBuilder field = new StringBuilder( );
+
+	/**
+	 * @param in
+	 *            the source reader
+	 * @param cols
+	 *            the data buffer columns in the column number order
+	 *
+	 * @throws IOException
+	 */
+	public CsvDecoder( Reader in, Column[] cols ) throws IOException {
+		this.in = in;
+		header( cols );
+	}
+
+	/**
+	 * Reads next row
+	 * 
+	 * @param values
+	 *            the row values in the data buffer column number order
+	 * 
+	 * @return false if there are no more rows
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public boolean next( Object[] values ) throws IOException, ParseException {
+		if( !record( ) ) {
+			return( false );
+		}
+		if( fields.size( ) > formats.length ) {
+			throw new IllegalArgumentException( "Exceeds available columns count, record: " + iRecord );
+		}
+		Arrays.fill( values, null );
+		for( int iCol = 0; iCol < fields.size( ); iCol++ ) {
+			values[ aiTarget[ iCol ] ] = formats[ iCol ].parse( fields.get( iCol ) );
+		}
+		return( true );
+	}
+
+	/**
+	 * Returns number of characters read from the reader
+	 *
+	 * @return the number of characters
+	 */
+	public long getRead( ) {
+		return( lRead - ( iLimit - iPos ) );
+	}
+
+	/**
+	 * Reads header and matches header columns with the data buffer columns
+	 * 
+	 * @param cols
+	 *            the data buffer columns in the column number order
+	 * 
+	 * @throws IOException
+	 */
+	private void header( Column[] cols ) throws IOException {
+		if( !record( ) ) {
+			throw new IOException( "CSV header is missing" );
+		}
+		formats = new ColumnFormat[ fields.size( ) ];
+		aiTarget = new int[ fields.size( ) ];
+		for( int iCol = 0; iCol < fields.size( ); iCol++ ) {
+			String sName = fields.get( iCol );
+			for( Column col : cols ) {
+				if( col.getName( ).equals( sName ) ) {
+					formats[ iCol ] = new ColumnFormat( col );
+					aiTarget[ iCol ] = col.getColNum( );
+				}
+			}
+			if( formats[ iCol ] == null ) {
+				throw new IllegalArgumentException( "column doesn't exist: " + sName );
+			}
+		}
+	}
+
+	/**
+	 * Reads next not empty record to the fields list, unquoted empty fields 
+	 * are added as null
+	 * 
+	 * @return false if there are no more records
+	 * 
+	 * @throws IOException
+	 */
+	private boolean record( ) throws IOException {
+		fields.clear( );
+		int c;
+		// skips empty lines
+		while( ( c = read( ) ) == '\r' || c == '\n' ) {
+		}
+		if( c == -1 ) {
+			return( false );
+		}
+		iRecord++;
+		while( true ) {
+			field.setLength( 0 );
+			if( c == CsvEncoder.QUOTE ) {
+				c = quoted( );
+				fields.add( field.toString( ) );
+			} else {
+				while( c != CsvEncoder.SEPARATOR && c != '\r' && c != '\n' && c != -1 ) {
+					field.append( ( char )c );
+					c = read( );
+				}
+				fields.add( field.length( ) == 0 ? null : field.toString( ) );
+			}
+			if( c != CsvEncoder.SEPARATOR ) {
+				break;
+			}
+			c = read( );
+		}
+		if( c == '\r' && peek( ) == '\n' ) {
+			read( );
+		}
+		return( true );
+	}
+
+	/**
+	 * Reads quoted field content after the opening quote to the field buffer
+	 * 
+	 * @return the character following the closing quote
+	 * 
+	 * @throws IOException
+	 */
+	private int quoted( ) throws IOException {
+		while( true ) {
+			int c = read( );
+			if( c == -1 ) {
+				throw new IOException( "Unterminated quoted field, record: " + iRecord );
+			}
+			if( c == CsvEncoder.QUOTE ) {
+				c = read( );
+				if( c != CsvEncoder.QUOTE ) {
+					if( c != CsvEncoder.SEPARATOR && c != '\r' && c != '\n' && c != -1 ) {
+						throw new IOException( "Unexpected character after quoted field, record: " + iRecord );
+					}
+					return( c );
+				}
+			}
+			field.append( ( char )c );
+		}
+	}
+
+	/**
+	 * Reads character
+	 * 
+	 * @return the character or -1 at the end of stream
+	 * 
+	 * @throws IOException
+	 */
+	private int read( ) throws IOException {
+		if( iPos == iLimit && !fill( ) ) {
+			return( -1 );
+		}
+		return( buf[ iPos++ ] );
+	}
+
+	/**
+	 * Returns next character without reading it
+	 * 
+	 * @return the character or -1 at the end of stream
+	 * 
+	 * @throws IOException
+	 */
+	private int peek( ) throws IOException {
+		if( iPos == iLimit && !fill( ) ) {
+			return( -1 );
+		}
+		return( buf[ iPos ] );
+	}
+
+	/**
+	 * Fills internal buffer
+	 * 
+	 * @return false at the end of stream
+	 * 
+	 * @throws IOException
+	 */
+	private boolean fill( ) throws IOException {
+		int iRead;
+		while( ( iRead = in.read( buf ) ) == 0 ) {
+		}
+		if( iRead < 0 ) {
+			return( false );
+		}
+		iPos = 0;
+		iLimit = iRead;
+		lRead += iRead;
+		return( true );
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming RFC 4180 CSV encoder of the data buffer rows. The first record is
+ * the header with the column names, records are separated by CRLF. Values are
+ * formatted by the column type and pattern 
+ * {@link org.homedns.mkh.databuffer.ColumnFormat}, fields containing comma, 
+ * double quote, CR or LF are enclosed in double quotes with double quotes 
+ * doubled, null is written as empty field and empty string as "". The encoder
+ * isn't thread safe.
+ *
+ */
+class CsvEncoder {
+	public static final char SEPARATOR = ',';
+	public static final char QUOTE = '"';
+	private static final char[] LINE_END = { '\r', '\n' };
+	private static final int BUFFER_SIZE = 8192;
+
+	private Writer writer;
+	private ColumnFormat[] formats;
+	private char[] buf = new char[ BUFFER_SIZE ];
+	private int iPos = 0;
+	private long lWritten = 0;
+
+	/**
+	 * @param writer
+	 *            the target writer
+	 * @param cols
+	 *            the columns in the column number order
+	 */
+	public CsvEncoder( Writer writer, Column[] cols ) {
+		this.writer = writer;
+		formats = new ColumnFormat[ cols.length ];
+		for( int iCol = 0; iCol < cols.length; iCol++ ) {
+			formats[ iCol ] = new ColumnFormat( cols[ iCol ] );
+		}
+	}
+
+	/**
+	 * Writes header record
+	 * 
+	 * @throws IOException
+	 */
+	public void header( ) throws IOException {
+		for( int iCol = 0; iCol < formats.length; iCol++ ) {
+			if( iCol > 0 ) {
+				write( SEPARATOR );
+			}
+			field( formats[ iCol ].getColumn( ).getName( ) );
+		}
+		write( LINE_END );
+	}
+
+	/**
+	 * Writes row record
+	 * 
+	 * @param values
+	 *            the row values in the column number order
+	 * 
+	 * @throws IOException
+	 */
+	public void row( Object[] values ) throws IOException {
+		for( int iCol = 0; iCol < formats.length; iCol++ ) {
+			if( iCol > 0 ) {
+				write( SEPARATOR );
+			}
+			String sValue = formats[ iCol ].format( values[ iCol ] );
+			if( sValue != null ) {
+				field( sValue );
+			}
+		}
+		write( LINE_END );
+	}
+
+	/**
+	 * Flushes internal buffer and the writer
+	 * 
+	 * @throws IOException
+	 */
+	public void flush( ) throws IOException {
+		drain( );
+		writer.flush( );
+	}
+
+	/**
+	 * Returns number of characters written
+	 * 
+	 * @return the number of characters
+	 */
+	public long getWritten( ) {
+		return( lWritten + iPos );
+	}
+
+	/**
+	 * Writes not null field, quotes it if needed
+	 * 
+	 * @param sValue
+	 *            the field text
+	 * 
+	 * @throws IOException
+	 */
+	private void field( String sValue ) throws IOException {
+		if( !needsQuotes( sValue ) ) {
+			write( sValue );
+			return;
+		}
+		write( QUOTE );
+		int iStart = 0;
+		int iQuote;
+		while( ( iQuote = sValue.indexOf( QUOTE, iStart ) ) >= 0 ) {
+			write( sValue.substring( iStart, iQuote + 1 ) );
+			write( QUOTE );
+			iStart = iQuote + 1;
+		}
+		write( sValue.substring( iStart ) );
+		write( QUOTE );
+	}
+
+	/**
+	 * Returns true if field should be enclosed in double quotes
+	 * 
+	 * @param sValue
+	 *            the field text
+	 * 
+	 * @return true if field should be quoted
+	 */
+	private static boolean needsQuotes( String sValue ) {
+		if( sValue.isEmpty( ) ) {
+			return( true );
+		}
+		for( int i = 0; i < sValue.length( ); i++ ) {
+			char c = sValue.charAt( i );
+			if( c == SEPARATOR || c == QUOTE || c == '\r' || c == '\n' ) {
+				return( true );
+			}
+		}
+		return( false );
+	}
+
+	/**
+	 * Writes character
+	 * 
+	 * @param c
+	 *            the character
+	 * 
+	 * @throws IOException
+	 */
+	private void write( char c ) throws IOException {
+		if( iPos == buf.length ) {
+			drain( );
+		}
+		buf[ iPos++ ] = c;
+	}
+
+	/**
+	 * Writes characters
+	 * 
+	 * @param chars
+	 *            the characters
+	 * 
+	 * @throws IOException
+	 */
+	private void write( char[] chars ) throws IOException {
+		for( char c : chars ) {
+			write( c );
+		}
+	}
+
+	/**
+	 * Writes string
+	 * 
+	 * @param s
+	 *            the string
+	 * 
+	 * @throws IOException
+	 */
+	private void write( String s ) throws IOException {
+		int iLength = s.length( );
+		if( iLength > buf.length - iPos ) {
+			drain( );
+			if( iLength > buf.length ) {
+				writer.write( s );
+				lWritten += iLength;
+				return;
+			}
+		}
+		s.getChars( 0, iLength, buf, iPos );
+		iPos += iLength;
+	}
+
+	/**
+	 * Writes internal buffer to the writer
+	 * 
+	 * @throws IOException
+	 */
+	private void drain( ) throws IOException {
+		writer.write( buf, 0, iPos );
+		lWritten += iPos;
+		iPos = 0;
+	}
+}
@@ -20,10 +20,19 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
+import org.apache.commons.dbcp2.DelegatingConnection;
 import org.homedns.mkh.databuffer.api.DataBuffer;
+import org.homedns.mkh.databuffer.api.DataBufferManager;
+import org.homedns.mkh.databuffer.api.Metrics;
 import org.homedns.mkh.databuffer.api.SessionParameters;
 
 /**
@@ -33,12 +42,28 @@ import org.homedns.mkh.databuffer.api.SessionParameters;
 public class DBConnection implements DataSource {
 	private SessionParameters sessionParams;
 	private DataSource dataSource;
+	private String sName;
+	private volatile Metrics metrics = Metrics.NOOP;
+	private ResultCache resultCache = new ResultCache( );
+	private volatile Coalescer coalescer;
+	private volatile Executor executor;
+	private volatile int iMaxInValues = Filter.DEFAULT_MAX_IN_VALUES;
+	private Map< Connection, Object > sessionKeys = new WeakHashMap< >( );
 
 	/**
 	 * @param dataSource the data source
 	 */
 	public DBConnection( DataSource dataSource ) {
+		this( dataSource, DataBufferManager.DEFAULT_DATASOURCE_NAME );
+	}
+
+	/**
+	 * @param dataSource the data source
+	 * @param sName the data source name, it's used as metrics tag
+	 */
+	public DBConnection( DataSource dataSource, String sName ) {
 		this.dataSource = dataSource;
+		this.sName = sName;
 	}
 
 	/**
@@ -52,9 +77,84 @@ public class DBConnection implements DataSource {
 	 * @throws SQLException
 	 */
 	public Connection getConnection( int iAction ) throws SQLException {
+		return( getConnection( iAction, null ) );
+	}
+
+	/**
+	 * Returns connection, connection acquisition wait is recorded to the
+	 * metrics. Session parameters are set only if they weren't set yet to 
+	 * the physical connection or they were changed since.
+	 * 
+	 * @param iAction
+	 *            the action (retrieve, insert, update, delete)
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * 
+	 * @return the database connection
+	 * 
+	 * @throws SQLException
+	 */
+	public Connection getConnection( int iAction, String sDataBuffer ) throws SQLException {
+		long lStart = System.nanoTime( );
 		Connection conn = dataSource.getConnection( );
+		metrics.record( Metrics.CONNECTION_WAIT, sDataBuffer, sName, System.nanoTime( ) - lStart );
 		if( iAction != DataBuffer.RETRIEVE && sessionParams != null ) {
-			sessionParams.set2Session( conn );
+			try {
+				setSession( conn, sessionParams );
+			}
+			catch( SQLException | RuntimeException e ) {
+				conn.close( );
+				throw e;
+			}
+		}
+		return( conn );
+	}
+
+	/**
+	 * Sets session parameters to the connection if the parameters with equal
+	 * session key weren't set to its physical connection yet.
+	 * 
+	 * @param conn
+	 *            the connection
+	 * @param params
+	 *            the session parameters
+	 * 
+	 * @throws SQLException
+	 */
+	private void setSession( Connection conn, SessionParameters params ) throws SQLException {
+		Object key = params.getSessionKey( );
+		if( key == null ) {
+			params.set2Session( conn );
+			return;
+		}
+		Connection physical = getPhysicalConnection( conn );
+		synchronized( sessionKeys ) {
+			if( Objects.equals( sessionKeys.get( physical ), key ) ) {
+				return;
+			}
+			sessionKeys.remove( physical );
+		}
+		params.set2Session( conn );
+		synchronized( sessionKeys ) {
+			sessionKeys.put( physical, key );
+		}
+	}
+
+	/**
+	 * Returns physical connection wrapped by the pooled connection.
+	 * 
+	 * @param conn
+	 *            the connection
+	 * 
+	 * @return the physical connection or the connection itself if it isn't
+	 *         dbcp pooled connection
+	 */
+	private static Connection getPhysicalConnection( Connection conn ) {
+		if( conn instanceof DelegatingConnection ) {
+			Connection physical = ( ( DelegatingConnection< ? > )conn ).getInnermostDelegateInternal( );
+			if( physical != null ) {
+				return( physical );
+			}
 		}
 		return( conn );
 	}
@@ -67,6 +167,9 @@ public class DBConnection implements DataSource {
 	 */
 	public void setSessionParameters( SessionParameters sessionParms ) {
 		this.sessionParams = sessionParms;
+		synchronized( sessionKeys ) {
+			sessionKeys.clear( );
+		}
 	}
 	
 	/**
@@ -78,6 +181,108 @@ public class DBConnection implements DataSource {
 		return( sessionParams );
 	}
 
+	/**
+	 * Returns data source name
+	 * 
+	 * @return the data source name
+	 */
+	public String getName( ) {
+		return( sName );
+	}
+
+	/**
+	 * Returns metrics
+	 * 
+	 * @return the metrics
+	 */
+	public Metrics getMetrics( ) {
+		return( metrics );
+	}
+
+	/**
+	 * Sets metrics
+	 * 
+	 * @param metrics
+	 *            the metrics to set, null turns metrics off
+	 */
+	public void setMetrics( Metrics metrics ) {
+		this.metrics = ( metrics == null ) ? Metrics.NOOP : metrics;
+	}
+
+	/**
+	 * Returns retrieve results cache shared by the data buffers of this data 
+	 * source
+	 * 
+	 * @return the results cache
+	 */
+	public ResultCache getResultCache( ) {
+		return( resultCache );
+	}
+
+	/**
+	 * Returns identical concurrent retrieves coalescer
+	 * 
+	 * @return the coalescer or null if coalescing is off
+	 */
+	public Coalescer getCoalescer( ) {
+		return( coalescer );
+	}
+
+	/**
+	 * Turns identical concurrent retrieves coalescing on or off
+	 * 
+	 * @param bCoalescing
+	 *            true to coalesce identical concurrent retrieves
+	 */
+	public void setCoalescing( boolean bCoalescing ) {
+		if( bCoalescing != ( coalescer != null ) ) {
+			coalescer = bCoalescing ? new Coalescer( ) : null;
+		}
+	}
+
+	/**
+	 * Returns executor of the asynchronous data buffer operations
+	 * 
+	 * @return the executor, virtual thread per task executor if the runtime
+	 *         supports virtual threads or cached daemon threads pool by default
+	 */
+	public Executor getExecutor( ) {
+		Executor current = executor;
+		return( current == null ? DefaultExecutor.INSTANCE : current );
+	}
+
+	/**
+	 * Sets executor of the asynchronous data buffer operations
+	 * 
+	 * @param executor
+	 *            the executor to set, null sets the default executor
+	 */
+	public void setExecutor( Executor executor ) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns maximum number of filter IN values
+	 * 
+	 * @return the maximum number of IN values
+	 */
+	public int getMaxInValues( ) {
+		return( iMaxInValues );
+	}
+
+	/**
+	 * Sets maximum number of filter IN values
+	 * 
+	 * @param iMaxInValues
+	 *            the maximum number of IN values to set, it must be positive
+	 */
+	public void setMaxInValues( int iMaxInValues ) {
+		if( iMaxInValues < 1 ) {
+			throw new IllegalArgumentException( "maximum number of IN values must be positive: " + iMaxInValues );
+		}
+		this.iMaxInValues = iMaxInValues;
+	}
+
 	/**
 	 * Returns backend datasource
 	 * 
@@ -149,4 +354,35 @@ public class DBConnection implements DataSource {
 	public Logger getParentLogger( ) throws SQLFeatureNotSupportedException {
 		return dataSource.getParentLogger( );
 	}
+
+	/**
+	 * Default executor holder, executor is created on first use
+	 */
+	private static class DefaultExecutor {
+		private static final Executor INSTANCE = create( );
+
+		/**
+		 * Creates virtual thread per task executor if the runtime supports
+		 * virtual threads (java 21+), otherwise cached daemon threads pool.
+		 * 
+		 * @return the executor
+		 */
+		private static Executor create( ) {
+			try {
+				return( ( Executor )Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null ) );
+			}
+			catch( ReflectiveOperationException e ) {
+				AtomicInteger count = new AtomicInteger( );
+				return( 
+					Executors.newCachedThreadPool( 
+						r -> {
+							Thread thread = new Thread( r, "databuffer-async-" + count.incrementAndGet( ) );
+							thread.setDaemon( true );
+							return( thread );
+						}
+					) 
+				);
+			}
+		}
+	}
 }
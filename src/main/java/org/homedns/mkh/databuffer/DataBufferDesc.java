@@ -26,7 +26,6 @@ import javax.sql.RowSetMetaData;
 import javax.sql.rowset.RowSetMetaDataImpl;
 import org.apache.log4j.Logger;
 import org.homedns.mkh.databuffer.api.Context;
-import org.homedns.mkh.databuffer.api.DataBuffer;
 
 /**
  * Data buffer's description properties object. Data buffer description is plain text file in JSON format.
@@ -64,9 +63,26 @@ import org.homedns.mkh.databuffer.api.DataBuffer;
  *       	"INT",
  *       	"TIMESTAMP"
  *       ],
- *       "reportData": "1,10"            - if this data buffer is use for reporting it indicates 
+ *       "reportData": "1,10",           - if this data buffer is use for reporting it indicates 
  *                                         start column and row indexes in excel sheet template where data buffer
  *                                         data should be inserted otherwise empty string (optional)
+ *       "storage": "rowset",            - data buffer storage: rowset - web rowset (default), 
+ *                                         columnar - primitive typed column arrays, suitable for large 
+ *                                         read mostly data buffers (optional)
+ *       "paging": "rowset",             - server paging mode if pageSize > 0: rowset - rowset paging with 
+ *                                         rowCountColumn, connection is kept open (default), keyset - pages 
+ *                                         are fetched by the key column ("key" must be query column label),
+ *                                         connection is used only while page is fetched (optional)
+ *       "commitInterval": 0,            - number of rows committed at a time when rows are saved one by one
+ *                                         or by batch, batch is committed at the first batchSize boundary 
+ *                                         after the interval is reached, 0 - all rows are saved in one 
+ *                                         transaction, batch is saved in auto commit mode (default) (optional)
+ *       "batchSize": 0,                 - number of rows sent to the database at a time when rows are saved
+ *                                         by batch, 0 - all rows are sent in one batch (default) (optional)
+ *       "cacheTTL": 0                   - retrieve results time to live in milliseconds in the data source 
+ *                                         results cache, results are invalidated when rows are saved to 
+ *                                         updateTableName, it's ignored if pageSize > 0, 0 - results 
+ *                                         aren't cached (default) (optional)
  *   },
  *   "columns": [                        - column section
  *        {
@@ -143,6 +159,7 @@ public class DataBufferDesc implements Serializable {
 	private List< String > colNames;
 	private transient RowSetMetaDataImpl metaData;
 	private transient List< String > updatableColNames;
+	private transient QueryCache queryCache;
 	
 	public DataBufferDesc( ) {
 	}
@@ -155,11 +172,13 @@ public class DataBufferDesc implements Serializable {
 	 * @throws Exception
 	 */
 	public void init( Context context ) throws Exception {
+		Object event = Events.begin( Events.INIT );
 		check( );
 		colNames = new ArrayList< >( getColumns( ).length );
 		updatableColNames = new ArrayList< >( );
 		metaData = new RowSetMetaDataImpl( );
 		metaData.setColumnCount( getColumns( ).length );
+		queryCache = new QueryCache( getTable( ).getQuery( ), context.getQueryCacheSize( ) );
 		int iCol = 0;
 		for( Column col : getColumns( ) ) {
 			col.setColNum( iCol );
@@ -175,21 +194,13 @@ public class DataBufferDesc implements Serializable {
 				col.isRequired( ) ? RowSetMetaData.columnNoNulls : RowSetMetaData.columnNullable 
 			);
 			if(	Column.DDDB.equals( col.getStyle( ) ) ) {
-				try( DataBuffer dddb = context.getDataBuffer( col.getDDDBName( ) ) ) {
-					dddb.retrieve( );
-					String[] asColName = { col.getDisplayCol( ), col.getDataCol( ) };
-					List< Value > values = new ArrayList< Value >( );
-					for( String[] row : dddb.getData( asColName ) ) {
-						Value value = new Value( );
-						value.setDisplayValue( row[ 0 ] );
-						value.setDataValue( row[ 1 ] );
-						values.add( value );
-					}
-					col.setValues( values.toArray( new Value[ values.size( ) ] ) );
-				}
+				col.setValues( 
+					context.getDropDownValues( col.getDDDBName( ), col.getDisplayCol( ), col.getDataCol( ) ) 
+				);
 			}
 			iCol++;
 		}
+		Events.commit( event, getName( ), "init", getTable( ).getQuery( ), 0, 0 );
 	}
 	
 	/**
@@ -318,6 +329,19 @@ public class DataBufferDesc implements Serializable {
 		return( columns[ iIndex ] );
 	}
 	
+	/**
+	 * Returns modified retrieve queries cache shared by the data buffers of 
+	 * this description
+	 * 
+	 * @return the queries cache
+	 */
+	public synchronized QueryCache getQueryCache( ) {
+		if( queryCache == null ) {
+			queryCache = new QueryCache( getTable( ).getQuery( ), QueryCache.DEFAULT_SIZE );
+		}
+		return( queryCache );
+	}
+
 	/**
 	 * Returns rowset metadata 
 	 * 
@@ -327,6 +351,28 @@ public class DataBufferDesc implements Serializable {
 		return( metaData );
 	}
 
+	/**
+	 * Returns copy of the initialized description with the specified columns,
+	 * other state is shared with this description, so the copy must not 
+	 * change it. It's used to replace shared description without changing it.
+	 * 
+	 * @param columns the columns of the copy in the same order
+	 * 
+	 * @return the description copy
+	 */
+	public DataBufferDesc withColumns( Column[] columns ) {
+		DataBufferDesc desc = new DataBufferDesc( );
+		desc.name = name;
+		desc.title = title;
+		desc.table = table;
+		desc.columns = columns;
+		desc.colNames = colNames;
+		desc.updatableColNames = updatableColNames;
+		desc.metaData = metaData;
+		desc.queryCache = getQueryCache( );
+		return( desc );
+	}
+
 	/**
 	 * Checks data buffer description incompleteness
 	 * 
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Data buffer flight recorder event, it's loaded only if the flight recorder
+ * is available, see {@link Events}. SQL is recorded with the literal values
+ * replaced by '?'.
+ *
+ */
+@Category( "Databuffer" )
+@StackTrace( false )
+abstract class DataBufferEvent extends Event {
+	@Label( "Data Buffer" )
+	String dataBuffer;
+
+	@Label( "Operation" )
+	String operation;
+
+	@Label( "SQL" )
+	String sql;
+
+	@Label( "Rows" )
+	long rows;
+
+	@Label( "Size" )
+	@Description( "Serialized data size in characters" )
+	long size;
+
+	/**
+	 * Retrieve event
+	 */
+	@Name( "org.homedns.mkh.databuffer.Retrieve" )
+	@Label( "Data Buffer Retrieve" )
+	static final class Retrieve extends DataBufferEvent {
+	}
+
+	/**
+	 * Save event
+	 */
+	@Name( "org.homedns.mkh.databuffer.Save" )
+	@Label( "Data Buffer Save" )
+	static final class Save extends DataBufferEvent {
+	}
+
+	/**
+	 * JSON, XML serialization and deserialization event
+	 */
+	@Name( "org.homedns.mkh.databuffer.Serialize" )
+	@Label( "Data Buffer Serialization" )
+	static final class Serialize extends DataBufferEvent {
+	}
+
+	/**
+	 * Data buffer description initialization event
+	 */
+	@Name( "org.homedns.mkh.databuffer.Init" )
+	@Label( "Data Buffer Description Init" )
+	static final class Init extends DataBufferEvent {
+	}
+}
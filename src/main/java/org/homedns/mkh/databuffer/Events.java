@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.util.regex.Pattern;
+import jdk.jfr.EventType;
+import org.apache.log4j.Logger;
+
+/**
+ * Flight recorder events facade. Event classes are touched only if the
+ * flight recorder is available (jdk.jfr), so the library still runs on JVMs
+ * without it. When the events aren't recorded {@link #begin(int)} returns
+ * null and {@link #commit(Object, String, String, String, long, long)}
+ * returns at once, SQL isn't processed at all.
+ *
+ */
+final class Events {
+	private static final Logger LOG = Logger.getLogger( Events.class );
+
+	public static final int RETRIEVE	= 0;
+	public static final int SAVE		= 1;
+	public static final int SERIALIZE	= 2;
+	public static final int INIT		= 3;
+
+	private static final boolean AVAILABLE = isAvailable( );
+	private static final Pattern LITERALS = Pattern.compile( 
+		"'(?:[^']|'')*'|(?<![\\w.])[-+]?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?(?![\\w.])" 
+	);
+
+	private Events( ) {
+	}
+
+	/**
+	 * Begins event
+	 * 
+	 * @param iType
+	 *            the event type {@link #RETRIEVE}, {@link #SAVE},
+	 *            {@link #SERIALIZE}, {@link #INIT}
+	 * 
+	 * @return the event or null if the event isn't recorded
+	 */
+	public static Object begin( int iType ) {
+		return( AVAILABLE ? Recorder.begin( iType ) : null );
+	}
+
+	/**
+	 * Ends and commits event if it exceeds recording threshold
+	 * 
+	 * @param event
+	 *            the event returned by {@link #begin(int)} or null
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * @param sOperation
+	 *            the operation
+	 * @param sSQL
+	 *            the SQL or null, literal values are replaced by '?'
+	 * @param lRows
+	 *            the rows count
+	 * @param lSize
+	 *            the serialized data size in characters
+	 */
+	public static void commit( 
+		Object event, String sDataBuffer, String sOperation, String sSQL, long lRows, long lSize 
+	) {
+		if( event != null ) {
+			Recorder.commit( ( DataBufferEvent )event, sDataBuffer, sOperation, sSQL, lRows, lSize );
+		}
+	}
+
+	/**
+	 * Replaces string and numeric literals by '?'
+	 * 
+	 * @param sSQL
+	 *            the SQL or null
+	 * 
+	 * @return the SQL without literal values
+	 */
+	static String stripLiterals( String sSQL ) {
+		return( sSQL == null ? null : LITERALS.matcher( sSQL ).replaceAll( "?" ) );
+	}
+
+	/**
+	 * Checks if flight recorder API is available
+	 * 
+	 * @return true if it's available
+	 */
+	private static boolean isAvailable( ) {
+		try {
+			Class.forName( "jdk.jfr.Event", false, Events.class.getClassLoader( ) );
+			return( true );
+		}
+		catch( ClassNotFoundException | LinkageError e ) {
+			LOG.debug( "flight recorder events are off: " + e.getMessage( ) );
+			return( false );
+		}
+	}
+
+	/**
+	 * Flight recorder API calls, they are isolated in this class, so the
+	 * facade is loaded and verified without jdk.jfr classes
+	 */
+	private static final class Recorder {
+		// indexed by the event type constants
+		private static final EventType[] TYPES = {
+			EventType.getEventType( DataBufferEvent.Retrieve.class ),
+			EventType.getEventType( DataBufferEvent.Save.class ),
+			EventType.getEventType( DataBufferEvent.Serialize.class ),
+			EventType.getEventType( DataBufferEvent.Init.class )
+		};
+
+		private static DataBufferEvent begin( int iType ) {
+			// event isn't allocated unless it's recorded
+			if( !TYPES[ iType ].isEnabled( ) ) {
+				return( null );
+			}
+			DataBufferEvent event;
+			if( iType == RETRIEVE ) {
+				event = new DataBufferEvent.Retrieve( );
+			} else if( iType == SAVE ) {
+				event = new DataBufferEvent.Save( );
+			} else if( iType == SERIALIZE ) {
+				event = new DataBufferEvent.Serialize( );
+			} else {
+				event = new DataBufferEvent.Init( );
+			}
+			event.begin( );
+			return( event );
+		}
+
+		private static void commit( 
+			DataBufferEvent event, String sDataBuffer, String sOperation, String sSQL, long lRows, long lSize 
+		) {
+			event.end( );
+			if( event.shouldCommit( ) ) {
+				event.dataBuffer = sDataBuffer;
+				event.operation = sOperation;
+				event.sql = stripLiterals( sSQL );
+				event.rows = lRows;
+				event.size = lSize;
+				event.commit( );
+			}
+		}
+	}
+}
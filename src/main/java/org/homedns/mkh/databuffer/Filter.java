@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structured retrieve filter, conditions are joined by AND. The filter is
+ * rendered to the WHERE clause conditions with '?' placeholders, the values
+ * are bound as the query arguments, so the same filter structure always gives
+ * the same SQL text. Columns are referred by the data buffer column names and
+ * rendered as the column database names. Condition values may be passed as
+ * strings, they are converted to the column type. Filter values are bound 
+ * after the query arguments, so it can't be used with the description query
+ * which has '?' placeholders after the WHERE clause, e.g. in HAVING, ORDER BY
+ * or LIMIT clauses, such retrieve is rejected. IN values list is padded
+ * up to the power of two, but not over the data source maximum number of IN
+ * values, {@link #DEFAULT_MAX_IN_VALUES} by default, longer lists are rejected 
+ * on retrieve, because drivers and databases limit number of bind parameters 
+ * or list items, e.g. Oracle allows 1000 list items, SQL Server 2100 
+ * parameters per statement.
+ * 
+ * <pre>
+ * db.retrieve( new Filter( ).add( "state", Filter.Operator.IN, "A", "B" ).add( "amount", Filter.Operator.GT, 100 ) );
+ * </pre>
+ *
+ */
+public class Filter implements Serializable {
+	private static final long serialVersionUID = 4712098463391572510L;
+
+	/**
+	 * Default maximum number of IN values
+	 */
+	public static final int DEFAULT_MAX_IN_VALUES = 1000;
+
+	private List< Condition > conditions = new ArrayList< >( );
+
+	/**
+	 * Filter operators
+	 */
+	public enum Operator {
+		EQ( "=", 1 ), NE( "<>", 1 ), LT( "<", 1 ), LE( "<=", 1 ), GT( ">", 1 ), GE( ">=", 1 ),
+		LIKE( "LIKE", 1 ), 
+		/**
+		 * one or more values
+		 */
+		IN( "IN", -1 ), 
+		/**
+		 * two values: lower and upper bounds inclusive
+		 */
+		BETWEEN( "BETWEEN", 2 ), 
+		IS_NULL( "IS NULL", 0 ), IS_NOT_NULL( "IS NOT NULL", 0 );
+
+		private String sSQL;
+		private int iValueCount;
+
+		/**
+		 * @param sSQL
+		 *            the SQL operator
+		 * @param iValueCount
+		 *            the number of values, -1 one or more
+		 */
+		private Operator( String sSQL, int iValueCount ) {
+			this.sSQL = sSQL;
+			this.iValueCount = iValueCount;
+		}
+
+		/**
+		 * Returns SQL operator
+		 * 
+		 * @return the SQL operator
+		 */
+		public String getSQL( ) {
+			return( sSQL );
+		}
+
+		/**
+		 * Returns number of values the operator takes
+		 * 
+		 * @return the number of values, -1 one or more
+		 */
+		public int getValueCount( ) {
+			return( iValueCount );
+		}
+	}
+
+	/**
+	 * Adds condition
+	 * 
+	 * @param sColName
+	 *            the data buffer column name
+	 * @param op
+	 *            the operator
+	 * @param values
+	 *            the values, they must not be null
+	 * 
+	 * @return this filter
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if number of values doesn't match the operator or the value
+	 *             is null
+	 */
+	public Filter add( String sColName, Operator op, Serializable... values ) {
+		conditions.add( new Condition( sColName, op, Arrays.asList( values ) ) );
+		return( this );
+	}
+
+	/**
+	 * Returns filter conditions
+	 * 
+	 * @return the conditions
+	 */
+	public List< Condition > getConditions( ) {
+		return( Collections.unmodifiableList( conditions ) );
+	}
+
+	/**
+	 * Returns true if filter has no conditions
+	 * 
+	 * @return true if filter is empty
+	 */
+	public boolean isEmpty( ) {
+		return( conditions.isEmpty( ) );
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString( ) {
+		return( "Filter [conditions=" + conditions + "]" );
+	}
+
+	/**
+	 * Filter condition
+	 */
+	public static class Condition implements Serializable {
+		private static final long serialVersionUID = -3305846727512279460L;
+
+		private String colName;
+		private Operator op;
+		private List< Serializable > values;
+
+		/**
+		 * @param colName
+		 *            the data buffer column name
+		 * @param op
+		 *            the operator
+		 * @param values
+		 *            the values
+		 */
+		public Condition( String colName, Operator op, List< Serializable > values ) {
+			int iCount = op.getValueCount( );
+			if( iCount < 0 ? values.isEmpty( ) : values.size( ) != iCount ) {
+				throw new IllegalArgumentException( 
+					colName + ": " + op + " takes " + ( iCount < 0 ? "one or more" : iCount ) + 
+					" values, but " + values.size( ) + " specified" 
+				);
+			}
+			if( values.contains( null ) ) {
+				throw new IllegalArgumentException( colName + ": null value, use IS_NULL operator" );
+			}
+			this.colName = colName;
+			this.op = op;
+			this.values = new ArrayList< >( values );
+		}
+
+		/**
+		 * Returns data buffer column name
+		 * 
+		 * @return the column name
+		 */
+		public String getColName( ) {
+			return( colName );
+		}
+
+		/**
+		 * Returns operator
+		 * 
+		 * @return the operator
+		 */
+		public Operator getOperator( ) {
+			return( op );
+		}
+
+		/**
+		 * Returns values
+		 * 
+		 * @return the values
+		 */
+		public List< Serializable > getValues( ) {
+			return( Collections.unmodifiableList( values ) );
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString( ) {
+			return( "Condition [colName=" + colName + ", op=" + op + ", values=" + values + "]" );
+		}
+	}
+}
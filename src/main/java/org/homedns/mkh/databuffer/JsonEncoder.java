@@ -0,0 +1,342 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Streaming JSON encoder, writes data buffer values straight to the writer.
+ * Numbers and timestamps are formatted in the internal buffer without
+ * creating intermediate strings. Timestamps are written in the server date
+ * format "yyyy-MM-dd HH:mm:ss" in the default time zone, i.e. in the format
+ * expected by {@link org.homedns.mkh.databuffer.api.DataBuffer#putJson(String)}.
+ * The encoder isn't thread safe.
+ *
+ */
+class JsonEncoder {
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_DEPTH = 8;
+	private static final char[] HEX = "0123456789abcdef".toCharArray( );
+
+	private Writer writer;
+	private char[] buf = new char[ BUFFER_SIZE ];
+	private int iPos = 0;
+	private long lWritten = 0;
+	private boolean[] abEmpty = new boolean[ MAX_DEPTH ];
+	private int iDepth = 0;
+	private TimeZone tz = TimeZone.getDefault( );
+
+	/**
+	 * @param writer
+	 *            the target writer
+	 */
+	public JsonEncoder( Writer writer ) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Begins JSON array
+	 *
+	 * @throws IOException
+	 */
+	public void beginArray( ) throws IOException {
+		separator( );
+		write( '[' );
+		abEmpty[ ++iDepth ] = true;
+	}
+
+	/**
+	 * Ends JSON array
+	 *
+	 * @throws IOException
+	 */
+	public void endArray( ) throws IOException {
+		iDepth--;
+		write( ']' );
+	}
+
+	/**
+	 * Writes null
+	 *
+	 * @throws IOException
+	 */
+	public void nullValue( ) throws IOException {
+		separator( );
+		write( "null" );
+	}
+
+	/**
+	 * Writes boolean value
+	 *
+	 * @param bValue
+	 *            the value
+	 *
+	 * @throws IOException
+	 */
+	public void value( boolean bValue ) throws IOException {
+		separator( );
+		write( bValue ? "true" : "false" );
+	}
+
+	/**
+	 * Writes integer value
+	 *
+	 * @param lValue
+	 *            the value
+	 *
+	 * @throws IOException
+	 */
+	public void value( long lValue ) throws IOException {
+		separator( );
+		if( lValue == Long.MIN_VALUE ) {
+			write( Long.toString( lValue ) );
+			return;
+		}
+		ensure( 20 );
+		if( lValue < 0 ) {
+			buf[ iPos++ ] = '-';
+			lValue = -lValue;
+		}
+		int iStart = iPos;
+		do {
+			buf[ iPos++ ] = ( char )( '0' + lValue % 10 );
+			lValue /= 10;
+		} while( lValue > 0 );
+		for( int i = iStart, j = iPos - 1; i < j; i++, j-- ) {
+			char c = buf[ i ];
+			buf[ i ] = buf[ j ];
+			buf[ j ] = c;
+		}
+	}
+
+	/**
+	 * Writes floating point value, NaN and infinity are written as null
+	 *
+	 * @param dValue
+	 *            the value
+	 *
+	 * @throws IOException
+	 */
+	public void value( double dValue ) throws IOException {
+		if( Double.isNaN( dValue ) || Double.isInfinite( dValue ) ) {
+			nullValue( );
+			return;
+		}
+		separator( );
+		write( Double.toString( dValue ) );
+	}
+
+	/**
+	 * Writes string value
+	 *
+	 * @param sValue
+	 *            the value
+	 *
+	 * @throws IOException
+	 */
+	public void value( String sValue ) throws IOException {
+		if( sValue == null ) {
+			nullValue( );
+			return;
+		}
+		separator( );
+		write( '"' );
+		int iLength = sValue.length( );
+		for( int i = 0; i < iLength; i++ ) {
+			char c = sValue.charAt( i );
+			if( c == '"' || c == '\\' ) {
+				write( '\\' );
+				write( c );
+			} else if( c < 0x20 || c == '\u2028' || c == '\u2029' ) {
+				escape( c );
+			} else {
+				write( c );
+			}
+		}
+		write( '"' );
+	}
+
+	/**
+	 * Writes timestamp value as "yyyy-MM-dd HH:mm:ss" string
+	 *
+	 * @param lMillis
+	 *            the timestamp epoch milliseconds
+	 *
+	 * @throws IOException
+	 */
+	public void timestamp( long lMillis ) throws IOException {
+		separator( );
+		ensure( 21 );
+		buf[ iPos++ ] = '"';
+		iPos = TypeCodec.formatTimestamp( lMillis, tz, buf, iPos );
+		buf[ iPos++ ] = '"';
+	}
+
+	/**
+	 * Writes value according to the data buffer data type
+	 *
+	 * @param value
+	 *            the value or null
+	 * @param type
+	 *            the data type
+	 *
+	 * @throws IOException
+	 */
+	public void value( Object value, Type type ) throws IOException {
+		if( value == null ) {
+			nullValue( );
+		} else if( value instanceof Date ) {
+			timestamp( ( ( Date )value ).getTime( ) );
+		} else if( value instanceof Double || value instanceof Float ) {
+			value( ( ( Number )value ).doubleValue( ) );
+		} else if( value instanceof Number && type != Type.STRING ) {
+			value( ( ( Number )value ).longValue( ) );
+		} else if( value instanceof Boolean ) {
+			value( ( ( Boolean )value ).booleanValue( ) );
+		} else {
+			value( value.toString( ) );
+		}
+	}
+
+	/**
+	 * Returns number of characters written including buffered ones
+	 *
+	 * @return the number of characters
+	 */
+	public long getWritten( ) {
+		return( lWritten + iPos );
+	}
+
+	/**
+	 * Flushes buffered characters to the writer
+	 *
+	 * @throws IOException
+	 */
+	public void flush( ) throws IOException {
+		writer.write( buf, 0, iPos );
+		lWritten += iPos;
+		iPos = 0;
+		writer.flush( );
+	}
+
+	/**
+	 * Writes values separator if it's needed
+	 *
+	 * @throws IOException
+	 */
+	private void separator( ) throws IOException {
+		if( iDepth > 0 ) {
+			if( abEmpty[ iDepth ] ) {
+				abEmpty[ iDepth ] = false;
+			} else {
+				write( ',' );
+			}
+		}
+	}
+
+	/**
+	 * Writes escaped character
+	 *
+	 * @param c
+	 *            the character
+	 *
+	 * @throws IOException
+	 */
+	private void escape( char c ) throws IOException {
+		ensure( 6 );
+		buf[ iPos++ ] = '\\';
+		switch( c ) {
+			case '\n':
+				buf[ iPos++ ] = 'n';
+				break;
+			case '\r':
+				buf[ iPos++ ] = 'r';
+				break;
+			case '\t':
+				buf[ iPos++ ] = 't';
+				break;
+			case '\b':
+				buf[ iPos++ ] = 'b';
+				break;
+			case '\f':
+				buf[ iPos++ ] = 'f';
+				break;
+			default:
+				buf[ iPos++ ] = 'u';
+				buf[ iPos++ ] = HEX[ ( c >> 12 ) & 0xf ];
+				buf[ iPos++ ] = HEX[ ( c >> 8 ) & 0xf ];
+				buf[ iPos++ ] = HEX[ ( c >> 4 ) & 0xf ];
+				buf[ iPos++ ] = HEX[ c & 0xf ];
+		}
+	}
+
+	/**
+	 * Writes character
+	 *
+	 * @param c
+	 *            the character
+	 *
+	 * @throws IOException
+	 */
+	private void write( char c ) throws IOException {
+		ensure( 1 );
+		buf[ iPos++ ] = c;
+	}
+
+	/**
+	 * Writes string
+	 *
+	 * @param s
+	 *            the string
+	 *
+	 * @throws IOException
+	 */
+	private void write( String s ) throws IOException {
+		int iLength = s.length( );
+		if( iLength > buf.length ) {
+			writer.write( buf, 0, iPos );
+			lWritten += iPos + iLength;
+			iPos = 0;
+			writer.write( s );
+			return;
+		}
+		ensure( iLength );
+		s.getChars( 0, iLength, buf, iPos );
+		iPos += iLength;
+	}
+
+	/**
+	 * Makes room for the specified number of characters in the buffer
+	 *
+	 * @param iLength
+	 *            the number of characters
+	 *
+	 * @throws IOException
+	 */
+	private void ensure( int iLength ) throws IOException {
+		if( iPos + iLength > buf.length ) {
+			writer.write( buf, 0, iPos );
+			lWritten += iPos;
+			iPos = 0;
+		}
+	}
+}
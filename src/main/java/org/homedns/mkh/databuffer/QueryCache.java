@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.homedns.mkh.sqlmodifier.SQLModifier;
+import com.akiban.sql.StandardException;
+
+/**
+ * Modified retrieve queries cache of the data buffer description. The 
+ * description query is parsed once and shared by all data buffers of the 
+ * description, the modified queries are cached per additional WHERE clause 
+ * conditions, the least recently used query is evicted when the cache is full.
+ * The description query is scanned once for '?' placeholders following the 
+ * WHERE clause position, see {@link #hasTrailingParameters()}.
+ *
+ */
+public class QueryCache {
+
+	/**
+	 * Default maximum number of cached queries
+	 */
+	public static final int DEFAULT_SIZE = 64;
+
+	/**
+	 * Top level clauses following the WHERE clause
+	 */
+	private static final Set< String > TRAILING_CLAUSES = new HashSet< >( 
+		Arrays.asList( 
+			"GROUP", "HAVING", "WINDOW", "ORDER", "LIMIT", "OFFSET", "FETCH", 
+			"UNION", "INTERSECT", "EXCEPT", "MINUS", "FOR" 
+		) 
+	);
+
+	private String sQuery;
+	private SQLModifier sqlModifier;
+	private LinkedHashMap< String, String > queries;
+	private int iMaxSize;
+	private long lHits;
+	private long lMisses;
+	private final boolean bTrailingParameters;
+
+	/**
+	 * @param sQuery
+	 *            the description retrieve query
+	 * @param iMaxSize
+	 *            the maximum number of cached queries, modified queries aren't
+	 *            cached if it's <= 0
+	 */
+	public QueryCache( String sQuery, int iMaxSize ) {
+		this.sQuery = sQuery;
+		this.iMaxSize = iMaxSize;
+		sqlModifier = new SQLModifier( );
+		bTrailingParameters = hasTrailingParameters( sQuery );
+		queries = new LinkedHashMap< String, String >( 16, 0.75f, true ) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry( Map.Entry< String, String > eldest ) {
+				return( size( ) > QueryCache.this.iMaxSize );
+			}
+		};
+	}
+
+	/**
+	 * Returns retrieve query modified by the additional WHERE clause conditions
+	 * 
+	 * @param sAddWhere
+	 *            the additional WHERE clause conditions
+	 * 
+	 * @return the modified query
+	 * 
+	 * @throws StandardException
+	 */
+	public synchronized String modifyQuery( String sAddWhere ) throws StandardException {
+		String sModified = queries.get( sAddWhere );
+		if( sModified != null ) {
+			lHits++;
+			return( sModified );
+		}
+		lMisses++;
+		if( !sqlModifier.isParsed( ) ) {
+			sqlModifier.parseQuery( sQuery );
+		}
+		sModified = sqlModifier.modifyQuery( sAddWhere );
+		if( iMaxSize > 0 ) {
+			queries.put( sAddWhere, sModified );
+		}
+		return( sModified );
+	}
+
+	/**
+	 * Returns true if the description query has '?' placeholders after the 
+	 * WHERE clause position, i.e. in the GROUP BY, HAVING, ORDER BY, LIMIT, 
+	 * OFFSET, FETCH clauses or in the following set operation queries. Values 
+	 * of the conditions added to the WHERE clause can't be bound after the 
+	 * query arguments for such query.
+	 * 
+	 * @return true if query has placeholders after the WHERE clause
+	 */
+	public boolean hasTrailingParameters( ) {
+		return( bTrailingParameters );
+	}
+
+	/**
+	 * Scans query for the '?' placeholders following the first top level 
+	 * clause after the WHERE clause, string literals, quoted identifiers and
+	 * comments are skipped.
+	 * 
+	 * @param sQuery
+	 *            the query
+	 * 
+	 * @return true if query has placeholders after the WHERE clause
+	 */
+	static boolean hasTrailingParameters( String sQuery ) {
+		int iDepth = 0;
+		boolean bTrailing = false;
+		int iLength = sQuery.length( );
+		int i = 0;
+		while( i < iLength ) {
+			char c = sQuery.charAt( i );
+			if( c == '\'' || c == '"' ) {
+				int iEnd = sQuery.indexOf( c, i + 1 );
+				// doubled quote is escaped quote, it's skipped as two literals
+				i = ( iEnd < 0 ) ? iLength : iEnd + 1;
+			} else if( c == '-' && sQuery.startsWith( "--", i ) ) {
+				int iEnd = sQuery.indexOf( '\n', i );
+				i = ( iEnd < 0 ) ? iLength : iEnd + 1;
+			} else if( c == '/' && sQuery.startsWith( "/*", i ) ) {
+				int iEnd = sQuery.indexOf( "*/", i + 2 );
+				i = ( iEnd < 0 ) ? iLength : iEnd + 2;
+			} else if( Character.isLetter( c ) || c == '_' ) {
+				int iStart = i;
+				while( i < iLength && ( Character.isLetterOrDigit( sQuery.charAt( i ) ) || sQuery.charAt( i ) == '_' ) ) {
+					i++;
+				}
+				if( iDepth == 0 && TRAILING_CLAUSES.contains( sQuery.substring( iStart, i ).toUpperCase( Locale.ROOT ) ) ) {
+					bTrailing = true;
+				}
+			} else {
+				if( c == '(' ) {
+					iDepth++;
+				} else if( c == ')' ) {
+					iDepth--;
+				} else if( c == '?' && bTrailing ) {
+					return( true );
+				}
+				i++;
+			}
+		}
+		return( false );
+	}
+
+	/**
+	 * Returns maximum number of cached queries
+	 * 
+	 * @return the maximum number of cached queries
+	 */
+	public synchronized int getMaxSize( ) {
+		return( iMaxSize );
+	}
+
+	/**
+	 * Sets maximum number of cached queries, the least recently used queries 
+	 * are evicted if the cache exceeds new size
+	 * 
+	 * @param iMaxSize
+	 *            the maximum number of cached queries to set
+	 */
+	public synchronized void setMaxSize( int iMaxSize ) {
+		this.iMaxSize = iMaxSize;
+		while( queries.size( ) > Math.max( iMaxSize, 0 ) ) {
+			queries.remove( queries.keySet( ).iterator( ).next( ) );
+		}
+	}
+
+	/**
+	 * Returns number of cached queries
+	 * 
+	 * @return the number of cached queries
+	 */
+	public synchronized int size( ) {
+		return( queries.size( ) );
+	}
+
+	/**
+	 * Returns number of queries found in the cache
+	 * 
+	 * @return the number of cache hits
+	 */
+	public synchronized long getHits( ) {
+		return( lHits );
+	}
+
+	/**
+	 * Returns number of queries modified by the parser
+	 * 
+	 * @return the number of cache misses
+	 */
+	public synchronized long getMisses( ) {
+		return( lMisses );
+	}
+
+	/**
+	 * Clears cached queries
+	 */
+	public synchronized void clear( ) {
+		queries.clear( );
+	}
+}
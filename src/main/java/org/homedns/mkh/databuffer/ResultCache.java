@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.log4j.Logger;
+
+/**
+ * Retrieve results cache. Results are cached per data buffer description, 
+ * retrieve query and arguments as immutable rows snapshot, each entry expires 
+ * after the description time to live {@link Table#getCacheTTL()}. The cache 
+ * weight is the total number of cached values, the least recently used 
+ * entries are evicted when it exceeds maximum weight. Entries are invalidated 
+ * by the update table name when data buffers save rows to that table. Results
+ * retrieved concurrently with the invalidation aren't cached.
+ *
+ */
+public class ResultCache {
+	private static final Logger LOG = Logger.getLogger( ResultCache.class );
+
+	/**
+	 * Default maximum cache weight
+	 */
+	public static final long DEFAULT_MAX_WEIGHT = 1000000L;
+
+	private LinkedHashMap< Key, Entry > entries;
+	private Map< String, Long > generations;
+	private long lMaxWeight;
+	private long lWeight;
+
+	/**
+	 * Creates cache with default maximum weight
+	 */
+	public ResultCache( ) {
+		this( DEFAULT_MAX_WEIGHT );
+	}
+
+	/**
+	 * @param lMaxWeight
+	 *            the maximum cache weight (total number of cached values)
+	 */
+	public ResultCache( long lMaxWeight ) {
+		this.lMaxWeight = lMaxWeight;
+		entries = new LinkedHashMap< >( 16, 0.75f, true );
+		generations = new HashMap< >( );
+	}
+
+	/**
+	 * Returns cached rows
+	 * 
+	 * @param key
+	 *            the entry key
+	 * 
+	 * @return the unmodifiable rows list or null if there is no entry or it's
+	 *         expired
+	 */
+	public synchronized List< Object[] > get( Key key ) {
+		Entry entry = entries.get( key );
+		if( entry == null ) {
+			return( null );
+		}
+		if( entry.lExpires < System.currentTimeMillis( ) ) {
+			remove( key );
+			return( null );
+		}
+		return( entry.rows );
+	}
+
+	/**
+	 * Returns table generation, it's changed every time the table is 
+	 * invalidated. It should be taken before the retrieve to make the entry
+	 * key.
+	 * 
+	 * @param sTable
+	 *            the update table name
+	 * 
+	 * @return the table generation
+	 */
+	public synchronized long getGeneration( String sTable ) {
+		Long generation = generations.get( sTable );
+		return( generation == null ? 0L : generation );
+	}
+
+	/**
+	 * Puts rows to the cache if the table isn't invalidated since the key
+	 * generation was taken and rows don't exceed maximum weight.
+	 * 
+	 * @param key
+	 *            the entry key
+	 * @param rows
+	 *            the rows, they must not be changed after
+	 * @param lTTL
+	 *            the entry time to live in milliseconds
+	 */
+	public synchronized void put( Key key, List< Object[] > rows, long lTTL ) {
+		if( key.lGeneration != getGeneration( key.sTable ) ) {
+			return;
+		}
+		long lEntryWeight = rows.isEmpty( ) ? 1 : ( long )rows.size( ) * rows.get( 0 ).length;
+		if( lEntryWeight > lMaxWeight ) {
+			return;
+		}
+		remove( key );
+		entries.put( key, new Entry( Collections.unmodifiableList( rows ), lEntryWeight, System.currentTimeMillis( ) + lTTL ) );
+		lWeight += lEntryWeight;
+		Iterator< Map.Entry< Key, Entry > > it = entries.entrySet( ).iterator( );
+		while( lWeight > lMaxWeight && it.hasNext( ) ) {
+			lWeight -= it.next( ).getValue( ).lWeight;
+			it.remove( );
+		}
+	}
+
+	/**
+	 * Invalidates all entries of the update table
+	 * 
+	 * @param sTable
+	 *            the update table name
+	 */
+	public synchronized void invalidate( String sTable ) {
+		generations.merge( sTable, 1L, Long::sum );
+		Iterator< Map.Entry< Key, Entry > > it = entries.entrySet( ).iterator( );
+		int iCount = 0;
+		while( it.hasNext( ) ) {
+			Map.Entry< Key, Entry > entry = it.next( );
+			if( sTable.equals( entry.getKey( ).sTable ) ) {
+				lWeight -= entry.getValue( ).lWeight;
+				it.remove( );
+				iCount++;
+			}
+		}
+		LOG.debug( "invalidate: " + sTable + ", entries: " + iCount );
+	}
+
+	/**
+	 * Clears cache
+	 */
+	public synchronized void clear( ) {
+		entries.clear( );
+		lWeight = 0;
+	}
+
+	/**
+	 * Returns number of cached entries
+	 * 
+	 * @return the number of entries
+	 */
+	public synchronized int size( ) {
+		return( entries.size( ) );
+	}
+
+	/**
+	 * Returns cache weight
+	 * 
+	 * @return the total number of cached values
+	 */
+	public synchronized long getWeight( ) {
+		return( lWeight );
+	}
+
+	/**
+	 * Returns maximum cache weight
+	 * 
+	 * @return the maximum cache weight
+	 */
+	public synchronized long getMaxWeight( ) {
+		return( lMaxWeight );
+	}
+
+	/**
+	 * Sets maximum cache weight
+	 * 
+	 * @param lMaxWeight
+	 *            the maximum cache weight to set
+	 */
+	public synchronized void setMaxWeight( long lMaxWeight ) {
+		this.lMaxWeight = lMaxWeight;
+		Iterator< Map.Entry< Key, Entry > > it = entries.entrySet( ).iterator( );
+		while( lWeight > lMaxWeight && it.hasNext( ) ) {
+			lWeight -= it.next( ).getValue( ).lWeight;
+			it.remove( );
+		}
+	}
+
+	/**
+	 * Removes entry
+	 * 
+	 * @param key
+	 *            the entry key
+	 */
+	private void remove( Key key ) {
+		Entry entry = entries.remove( key );
+		if( entry != null ) {
+			lWeight -= entry.lWeight;
+		}
+	}
+
+	/**
+	 * Cache entry key, keys of the same retrieve are different if the update
+	 * table was invalidated between them.
+	 */
+	public static class Key {
+		private String sDataBuffer;
+		private String sTable;
+		private String sQuery;
+		private List< Serializable > args;
+		private long lGeneration;
+		private int iHash;
+
+		/**
+		 * @param sDataBuffer
+		 *            the data buffer name
+		 * @param sTable
+		 *            the update table name
+		 * @param sQuery
+		 *            the retrieve query
+		 * @param args
+		 *            the retrieve arguments or null
+		 * @param lGeneration
+		 *            the update table generation {@link ResultCache#getGeneration(String)}
+		 */
+		public Key( String sDataBuffer, String sTable, String sQuery, List< Serializable > args, long lGeneration ) {
+			this.sDataBuffer = sDataBuffer;
+			this.sTable = sTable;
+			this.sQuery = sQuery;
+			this.args = ( args == null ) ? Collections.emptyList( ) : new ArrayList< >( args );
+			this.lGeneration = lGeneration;
+			iHash = Arrays.hashCode( new Object[] { sDataBuffer, sTable, sQuery, this.args, lGeneration } );
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode( ) {
+			return( iHash );
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals( Object obj ) {
+			if( this == obj ) {
+				return( true );
+			}
+			if( !( obj instanceof Key ) ) {
+				return( false );
+			}
+			Key other = ( Key )obj;
+			return( 
+				iHash == other.iHash && lGeneration == other.lGeneration && 
+				Objects.equals( sQuery, other.sQuery ) && args.equals( other.args ) &&
+				Objects.equals( sDataBuffer, other.sDataBuffer ) && Objects.equals( sTable, other.sTable )
+			);
+		}
+	}
+
+	/**
+	 * Cache entry
+	 */
+	private static class Entry {
+		private List< Object[] > rows;
+		private long lWeight;
+		private long lExpires;
+
+		public Entry( List< Object[] > rows, long lWeight, long lExpires ) {
+			this.rows = rows;
+			this.lWeight = lWeight;
+			this.lExpires = lExpires;
+		}
+	}
+}
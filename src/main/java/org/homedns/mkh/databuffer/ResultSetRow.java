@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import org.homedns.mkh.databuffer.api.DataRow;
+
+/**
+ * Data row view over the current row of the result set, values are converted
+ * according to the data buffer description column types
+ *
+ */
+class ResultSetRow implements DataRow {
+	private ResultSet rs;
+	private DataBufferDesc desc;
+	private TypeCodec[] codecs;
+
+	/**
+	 * @param rs
+	 *            the result set
+	 * @param desc
+	 *            the data buffer description
+	 */
+	public ResultSetRow( ResultSet rs, DataBufferDesc desc ) {
+		this.rs = rs;
+		this.desc = desc;
+		Column[] cols = desc.getColumns( );
+		codecs = new TypeCodec[ cols.length ];
+		for( Column col : cols ) {
+			codecs[ col.getColNum( ) ] = TypeCodec.get( col.getType( ) );
+		}
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getColumnCount()
+	 */
+	@Override
+	public int getColumnCount( ) {
+		return( codecs.length );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getObject(int)
+	 */
+	@Override
+	public Object getObject( int iCol ) throws SQLException {
+		return( codecs[ iCol ].read( rs, iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getObject(java.lang.String)
+	 */
+	@Override
+	public Object getObject( String sColName ) throws SQLException {
+		return( getObject( desc.getColumn( sColName ).getColNum( ) ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#isNull(int)
+	 */
+	@Override
+	public boolean isNull( int iCol ) throws SQLException {
+		rs.getObject( iCol + 1 );
+		return( rs.wasNull( ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getInt(int)
+	 */
+	@Override
+	public int getInt( int iCol ) throws SQLException {
+		return( rs.getInt( iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getLong(int)
+	 */
+	@Override
+	public long getLong( int iCol ) throws SQLException {
+		return( rs.getLong( iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getDouble(int)
+	 */
+	@Override
+	public double getDouble( int iCol ) throws SQLException {
+		return( rs.getDouble( iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getBoolean(int)
+	 */
+	@Override
+	public boolean getBoolean( int iCol ) throws SQLException {
+		return( rs.getBoolean( iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getString(int)
+	 */
+	@Override
+	public String getString( int iCol ) throws SQLException {
+		return( rs.getString( iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#getTimestamp(int)
+	 */
+	@Override
+	public Timestamp getTimestamp( int iCol ) throws SQLException {
+		return( rs.getTimestamp( iCol + 1 ) );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.DataRow#toArray()
+	 */
+	@Override
+	public Serializable[] toArray( ) throws SQLException {
+		Serializable[] row = new Serializable[ codecs.length ];
+		for( int iCol = 0; iCol < codecs.length; iCol++ ) {
+			row[ iCol ] = ( Serializable )getObject( iCol );
+		}
+		return( row );
+	}
+}
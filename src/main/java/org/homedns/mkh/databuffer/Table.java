@@ -30,6 +30,25 @@ import com.google.gson.annotations.SerializedName;
 public class Table implements Serializable {
 	private static final long serialVersionUID = 5579034046103844446L;
 	
+	/**
+	 * Data buffer rows are kept in the web rowset
+	 */
+	public static final String ROWSET = "rowset";
+	/**
+	 * Data buffer rows are kept column by column in the primitive arrays
+	 */
+	public static final String COLUMNAR = "columnar";
+	/**
+	 * Server paging is performed by the rowset, paging connection is kept
+	 * open until data buffer is closed
+	 */
+	public static final String PAGING_ROWSET = "rowset";
+	/**
+	 * Server paging is performed by the keyset (seek) queries ordered by the 
+	 * key column, connection is used only while the page is fetched
+	 */
+	public static final String PAGING_KEYSET = "keyset";
+
 	private String updateTableName;
 	@SerializedName( "select" ) private String query;
 	@SerializedName( "key" ) private String pkCol;
@@ -37,6 +56,11 @@ public class Table implements Serializable {
 	private int pageSize;
 	private String[] argType;
 	private String reportData;
+	private String storage = ROWSET;
+	private String paging = PAGING_ROWSET;
+	private int commitInterval;
+	private int batchSize;
+	private long cacheTTL;
 
 	public Table( ) {
 	}
@@ -180,6 +204,103 @@ public class Table implements Serializable {
 		this.pageSize = pageSize;
 	}
 
+	/**
+	 * Returns data buffer storage type
+	 * 
+	 * @return the storage type {@link #ROWSET} or {@link #COLUMNAR}
+	 */
+	public String getStorage( ) {
+		return( storage == null || "".equals( storage ) ? ROWSET : storage );
+	}
+
+	/**
+	 * Returns number of rows committed at a time by the multi-row save, batch 
+	 * save commits at the first batch boundary after the interval is reached
+	 * 
+	 * @return the commit interval, 0 - all rows are saved in one transaction,
+	 *         batch save runs in the connection auto commit mode
+	 */
+	public int getCommitInterval( ) {
+		return( commitInterval );
+	}
+
+	/**
+	 * Sets number of rows committed at a time by the multi-row save
+	 * 
+	 * @param commitInterval
+	 *            the commit interval to set, 0 - all rows are saved in one transaction
+	 */
+	public void setCommitInterval( int commitInterval ) {
+		this.commitInterval = commitInterval;
+	}
+
+	/**
+	 * Returns number of rows sent to the database at a time by the batch save
+	 * 
+	 * @return the batch size, 0 - all rows are sent in one batch
+	 */
+	public int getBatchSize( ) {
+		return( batchSize );
+	}
+
+	/**
+	 * Sets number of rows sent to the database at a time by the batch save
+	 * 
+	 * @param batchSize
+	 *            the batch size to set, 0 - all rows are sent in one batch
+	 */
+	public void setBatchSize( int batchSize ) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns retrieve results time to live in the results cache
+	 * 
+	 * @return the time to live in milliseconds, 0 - results aren't cached
+	 */
+	public long getCacheTTL( ) {
+		return( cacheTTL );
+	}
+
+	/**
+	 * Sets retrieve results time to live in the results cache
+	 * 
+	 * @param cacheTTL
+	 *            the time to live in milliseconds to set, 0 - results aren't cached
+	 */
+	public void setCacheTTL( long cacheTTL ) {
+		this.cacheTTL = cacheTTL;
+	}
+
+	/**
+	 * Returns server paging mode
+	 * 
+	 * @return the paging mode {@link #PAGING_ROWSET} or {@link #PAGING_KEYSET}
+	 */
+	public String getPaging( ) {
+		return( paging == null || "".equals( paging ) ? PAGING_ROWSET : paging );
+	}
+
+	/**
+	 * Sets server paging mode
+	 * 
+	 * @param paging
+	 *            the paging mode to set {@link #PAGING_ROWSET} or {@link #PAGING_KEYSET}
+	 */
+	public void setPaging( String paging ) {
+		this.paging = paging;
+	}
+
+	/**
+	 * Sets data buffer storage type
+	 * 
+	 * @param storage
+	 *            the storage type to set {@link #ROWSET} or {@link #COLUMNAR}
+	 */
+	public void setStorage( String storage ) {
+		this.storage = storage;
+	}
+
 	/**
 	 * @see java.lang.Object#toString()
 	 */
@@ -187,6 +308,7 @@ public class Table implements Serializable {
 	public String toString( ) {
 		return "Table [updateTableName=" + updateTableName + ", query=" + query + ", pkCol=" + pkCol + ", rowCountCol="
 			+ rowCountCol + ", pageSize=" + pageSize + ", argType=" + Arrays.toString( argType ) + ", reportData="
-			+ reportData + "]";
+			+ reportData + ", storage=" + storage + ", paging=" + paging
+			+ ", commitInterval=" + commitInterval + ", batchSize=" + batchSize + ", cacheTTL=" + cacheTTL + "]";
 	}
 }
@@ -0,0 +1,567 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Data type codec, converts values of the data buffer data type 
+ * {@link org.homedns.mkh.databuffer.Type} from and to the text, binds them to 
+ * the statement parameters and reads them from the result set. Codecs are 
+ * stateless and thread safe, numeric values are bound and read by the 
+ * primitive JDBC methods. Timestamps text format is "yyyy-MM-dd HH:mm:ss" in 
+ * the default time zone, fractional seconds are optional on parsing.
+ *
+ */
+public abstract class TypeCodec {
+	public static final String SERVER_DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+	/**
+	 * Timestamps parser, the formatter is immutable and thread safe
+	 */
+	public static final DateTimeFormatter SERVER_DATE_PARSER = new DateTimeFormatterBuilder( )
+		.appendValue( ChronoField.YEAR, 4, 9, SignStyle.NORMAL )
+		.appendLiteral( '-' )
+		.appendValue( ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE )
+		.appendLiteral( '-' )
+		.appendValue( ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE )
+		.appendLiteral( ' ' )
+		.appendValue( ChronoField.HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE )
+		.appendLiteral( ':' )
+		.appendValue( ChronoField.MINUTE_OF_HOUR, 1, 2, SignStyle.NOT_NEGATIVE )
+		.appendLiteral( ':' )
+		.appendValue( ChronoField.SECOND_OF_MINUTE, 1, 2, SignStyle.NOT_NEGATIVE )
+		.optionalStart( )
+		.appendFraction( ChronoField.NANO_OF_SECOND, 0, 9, true )
+		.optionalEnd( )
+		.toFormatter( );
+
+	private static final long MILLIS_PER_DAY = 86400000L;
+	private static final int TIMESTAMP_LENGTH = 19;
+	private static final TimeZone TZ = TimeZone.getDefault( );
+	private static final ZoneId ZONE = TZ.toZoneId( );
+	private static final Map< Type, TypeCodec > CODECS = new EnumMap< >( Type.class );
+
+	static {
+		CODECS.put( Type.STRING, new StringCodec( Type.STRING ) );
+		CODECS.put( Type.HEXSTRING, new StringCodec( Type.HEXSTRING ) );
+		CODECS.put( Type.ASCIISTRING, new StringCodec( Type.ASCIISTRING ) );
+		CODECS.put( Type.BYTE, new IntCodec( Type.BYTE ) );
+		CODECS.put( Type.SHORT, new IntCodec( Type.SHORT ) );
+		CODECS.put( Type.INT, new IntCodec( Type.INT ) );
+		CODECS.put( Type.LONG, new LongCodec( ) );
+		CODECS.put( Type.TIMESTAMP, new TimestampCodec( ) );
+		CODECS.put( Type.DOUBLE, new DoubleCodec( Type.DOUBLE ) );
+		CODECS.put( Type.FLOAT, new DoubleCodec( Type.FLOAT ) );
+		CODECS.put( Type.BOOLEAN, new BooleanCodec( ) );
+	}
+
+	private Type type;
+
+	/**
+	 * @param type
+	 *            the data type
+	 */
+	protected TypeCodec( Type type ) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns codec for the specified data type
+	 * 
+	 * @param type
+	 *            the data type
+	 * 
+	 * @return the codec
+	 */
+	public static TypeCodec get( Type type ) {
+		return( CODECS.get( type ) );
+	}
+
+	/**
+	 * Returns codec for the specified sql type
+	 * 
+	 * @param iSQLType
+	 *            the sql type {@link java.sql.Types}
+	 * 
+	 * @return the codec or null if sql type isn't supported
+	 */
+	public static TypeCodec get( int iSQLType ) {
+		switch( iSQLType ) {
+			case Types.VARCHAR:
+				return( get( Type.STRING ) );
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				return( get( Type.INT ) );
+			case Types.BIGINT:
+				return( get( Type.LONG ) );
+			case Types.TIMESTAMP:
+				return( get( Type.TIMESTAMP ) );
+			case Types.DOUBLE:
+				return( get( Type.DOUBLE ) );
+			case Types.FLOAT:
+				return( get( Type.FLOAT ) );
+			case Types.BOOLEAN:
+				return( get( Type.BOOLEAN ) );
+			default:
+				return( null );
+		}
+	}
+
+	/**
+	 * Returns codec for the specified value class
+	 * 
+	 * @param value
+	 *            the value
+	 * 
+	 * @return the codec or null if value is null or value class has no codec
+	 */
+	public static TypeCodec of( Object value ) {
+		if( value instanceof String ) {
+			return( get( Type.STRING ) );
+		} else if( value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return( get( Type.INT ) );
+		} else if( value instanceof Long ) {
+			return( get( Type.LONG ) );
+		} else if( value instanceof Date ) {
+			return( get( Type.TIMESTAMP ) );
+		} else if( value instanceof Double ) {
+			return( get( Type.DOUBLE ) );
+		} else if( value instanceof Float ) {
+			return( get( Type.FLOAT ) );
+		} else if( value instanceof Boolean ) {
+			return( get( Type.BOOLEAN ) );
+		}
+		return( null );
+	}
+
+	/**
+	 * Returns codec data type
+	 * 
+	 * @return the data type
+	 */
+	public Type getType( ) {
+		return( type );
+	}
+
+	/**
+	 * Parses text to the value.
+	 * 
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return the value or null if text is null or empty
+	 * 
+	 * @throws ParseException
+	 */
+	public Object parse( String sValue ) throws ParseException {
+		if( sValue == null || sValue.isEmpty( ) ) {
+			return( null );
+		}
+		return( parseValue( sValue ) );
+	}
+
+	/**
+	 * Formats value to the text.
+	 * 
+	 * @param value
+	 *            the value
+	 * 
+	 * @return the text or null if value is null
+	 */
+	public String format( Object value ) {
+		return( value == null ? null : value.toString( ) );
+	}
+
+	/**
+	 * Converts value to the object kept by the data buffer, text is parsed.
+	 * 
+	 * @param value
+	 *            the value
+	 * 
+	 * @return the converted value
+	 * 
+	 * @throws ParseException
+	 */
+	public Object convert( Object value ) throws ParseException {
+		return( value instanceof String ? parse( ( String )value ) : value );
+	}
+
+	/**
+	 * Binds value to the statement parameter, null is bound as sql null of the
+	 * codec type.
+	 * 
+	 * @param stmt
+	 *            the statement
+	 * @param iParm
+	 *            the parameter index
+	 * @param value
+	 *            the value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public void bind( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+		if( value == null ) {
+			stmt.setNull( iParm, type.getSQLType( ) );
+		} else {
+			bindValue( stmt, iParm, value );
+		}
+	}
+
+	/**
+	 * Reads value of the specified result set column
+	 * 
+	 * @param rs
+	 *            the result set
+	 * @param iCol
+	 *            the result set column index
+	 * 
+	 * @return the value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public abstract Object read( ResultSet rs, int iCol ) throws SQLException;
+
+	/**
+	 * Parses not empty text to the value.
+	 * 
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return the value
+	 * 
+	 * @throws ParseException
+	 */
+	protected abstract Object parseValue( String sValue ) throws ParseException;
+
+	/**
+	 * Binds not null value to the statement parameter, values of the
+	 * unexpected classes are bound as objects.
+	 * 
+	 * @param stmt
+	 *            the statement
+	 * @param iParm
+	 *            the parameter index
+	 * @param value
+	 *            the value
+	 * 
+	 * @throws SQLException
+	 */
+	protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+		stmt.setObject( iParm, value );
+	}
+
+	/**
+	 * Formats timestamp as "yyyy-MM-dd HH:mm:ss" to the character buffer
+	 * without intermediate objects.
+	 * 
+	 * @param lMillis
+	 *            the timestamp epoch milliseconds
+	 * @param tz
+	 *            the time zone
+	 * @param buf
+	 *            the buffer
+	 * @param iPos
+	 *            the buffer position, the buffer must have at least 19 
+	 *            characters from this position
+	 * 
+	 * @return the buffer position after the timestamp
+	 */
+	static int formatTimestamp( long lMillis, TimeZone tz, char[] buf, int iPos ) {
+		long lLocal = lMillis + tz.getOffset( lMillis );
+		long lDays = Math.floorDiv( lLocal, MILLIS_PER_DAY );
+		int iSecOfDay = ( int )( Math.floorMod( lLocal, MILLIS_PER_DAY ) / 1000 );
+		// civil date from days since epoch, see http://howardhinnant.github.io/date_algorithms.html
+		long z = lDays + 719468;
+		long lEra = Math.floorDiv( z, 146097 );
+		long lDoe = z - lEra * 146097;
+		long lYoe = ( lDoe - lDoe / 1460 + lDoe / 36524 - lDoe / 146096 ) / 365;
+		long lDoy = lDoe - ( 365 * lYoe + lYoe / 4 - lYoe / 100 );
+		long lMp = ( 5 * lDoy + 2 ) / 153;
+		int iDay = ( int )( lDoy - ( 153 * lMp + 2 ) / 5 + 1 );
+		int iMonth = ( int )( lMp < 10 ? lMp + 3 : lMp - 9 );
+		int iYear = ( int )( lYoe + lEra * 400 + ( iMonth <= 2 ? 1 : 0 ) );
+		iPos = digits( buf, iPos, iYear, 4 );
+		buf[ iPos++ ] = '-';
+		iPos = digits( buf, iPos, iMonth, 2 );
+		buf[ iPos++ ] = '-';
+		iPos = digits( buf, iPos, iDay, 2 );
+		buf[ iPos++ ] = ' ';
+		iPos = digits( buf, iPos, iSecOfDay / 3600, 2 );
+		buf[ iPos++ ] = ':';
+		iPos = digits( buf, iPos, iSecOfDay / 60 % 60, 2 );
+		buf[ iPos++ ] = ':';
+		return( digits( buf, iPos, iSecOfDay % 60, 2 ) );
+	}
+
+	/**
+	 * Writes not negative integer zero padded to the specified width
+	 *
+	 * @param buf
+	 *            the buffer
+	 * @param iPos
+	 *            the buffer position
+	 * @param iValue
+	 *            the value
+	 * @param iWidth
+	 *            the width
+	 * 
+	 * @return the buffer position after the value
+	 */
+	private static int digits( char[] buf, int iPos, int iValue, int iWidth ) {
+		for( int i = iPos + iWidth - 1; i >= iPos; i-- ) {
+			buf[ i ] = ( char )( '0' + iValue % 10 );
+			iValue /= 10;
+		}
+		return( iPos + iWidth );
+	}
+
+	/**
+	 * STRING, HEXSTRING and ASCIISTRING codec, empty string is kept as is
+	 */
+	private static class StringCodec extends TypeCodec {
+
+		private StringCodec( Type type ) {
+			super( type );
+		}
+
+		@Override
+		public Object parse( String sValue ) {
+			return( sValue );
+		}
+
+		@Override
+		public Object read( ResultSet rs, int iCol ) throws SQLException {
+			return( rs.getString( iCol ) );
+		}
+
+		@Override
+		protected Object parseValue( String sValue ) {
+			return( sValue );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+			if( value instanceof String ) {
+				stmt.setString( iParm, ( String )value );
+			} else {
+				stmt.setObject( iParm, value );
+			}
+		}
+	}
+
+	/**
+	 * BYTE, SHORT and INT codec, values are kept as integers
+	 */
+	private static class IntCodec extends TypeCodec {
+
+		private IntCodec( Type type ) {
+			super( type );
+		}
+
+		@Override
+		public Object read( ResultSet rs, int iCol ) throws SQLException {
+			int iValue = rs.getInt( iCol );
+			return( rs.wasNull( ) ? null : iValue );
+		}
+
+		@Override
+		protected Object parseValue( String sValue ) {
+			return( Integer.valueOf( sValue ) );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+			if( value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+				stmt.setInt( iParm, ( ( Number )value ).intValue( ) );
+			} else {
+				stmt.setObject( iParm, value );
+			}
+		}
+	}
+
+	/**
+	 * LONG codec
+	 */
+	private static class LongCodec extends TypeCodec {
+
+		private LongCodec( ) {
+			super( Type.LONG );
+		}
+
+		@Override
+		public Object read( ResultSet rs, int iCol ) throws SQLException {
+			long lValue = rs.getLong( iCol );
+			return( rs.wasNull( ) ? null : lValue );
+		}
+
+		@Override
+		protected Object parseValue( String sValue ) {
+			return( Long.valueOf( sValue ) );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+			if( value instanceof Long || value instanceof Integer ) {
+				stmt.setLong( iParm, ( ( Number )value ).longValue( ) );
+			} else {
+				stmt.setObject( iParm, value );
+			}
+		}
+	}
+
+	/**
+	 * DOUBLE and FLOAT codec, FLOAT text is parsed to float, result set values
+	 * are read as double
+	 */
+	private static class DoubleCodec extends TypeCodec {
+
+		private DoubleCodec( Type type ) {
+			super( type );
+		}
+
+		@Override
+		public Object read( ResultSet rs, int iCol ) throws SQLException {
+			double dValue = rs.getDouble( iCol );
+			return( rs.wasNull( ) ? null : dValue );
+		}
+
+		@Override
+		protected Object parseValue( String sValue ) {
+			if( getType( ) == Type.FLOAT ) {
+				return( Float.valueOf( sValue ) );
+			}
+			return( Double.valueOf( sValue ) );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+			if( value instanceof Double ) {
+				stmt.setDouble( iParm, ( Double )value );
+			} else if( value instanceof Float ) {
+				stmt.setFloat( iParm, ( Float )value );
+			} else {
+				stmt.setObject( iParm, value );
+			}
+		}
+	}
+
+	/**
+	 * BOOLEAN codec
+	 */
+	private static class BooleanCodec extends TypeCodec {
+
+		private BooleanCodec( ) {
+			super( Type.BOOLEAN );
+		}
+
+		@Override
+		public Object read( ResultSet rs, int iCol ) throws SQLException {
+			boolean bValue = rs.getBoolean( iCol );
+			return( rs.wasNull( ) ? null : bValue );
+		}
+
+		@Override
+		protected Object parseValue( String sValue ) {
+			return( Boolean.valueOf( sValue ) );
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+			if( value instanceof Boolean ) {
+				stmt.setBoolean( iParm, ( Boolean )value );
+			} else {
+				stmt.setObject( iParm, value );
+			}
+		}
+	}
+
+	/**
+	 * TIMESTAMP codec, dates are converted to the timestamps
+	 */
+	private static class TimestampCodec extends TypeCodec {
+
+		private TimestampCodec( ) {
+			super( Type.TIMESTAMP );
+		}
+
+		@Override
+		public String format( Object value ) {
+			if( !( value instanceof Date ) ) {
+				return( super.format( value ) );
+			}
+			char[] buf = new char[ TIMESTAMP_LENGTH ];
+			formatTimestamp( ( ( Date )value ).getTime( ), TZ, buf, 0 );
+			return( new String( buf ) );
+		}
+
+		@Override
+		public Object convert( Object value ) throws ParseException {
+			if( value instanceof Date && !( value instanceof Timestamp ) ) {
+				return( new Timestamp( ( ( Date )value ).getTime( ) ) );
+			}
+			return( super.convert( value ) );
+		}
+
+		@Override
+		public Object read( ResultSet rs, int iCol ) throws SQLException {
+			return( rs.getTimestamp( iCol ) );
+		}
+
+		@Override
+		protected Object parseValue( String sValue ) throws ParseException {
+			try {
+				return( Timestamp.from( LocalDateTime.parse( sValue, SERVER_DATE_PARSER ).atZone( ZONE ).toInstant( ) ) );
+			}
+			catch( DateTimeParseException e ) {
+				ParseException ex = new ParseException( e.getMessage( ), e.getErrorIndex( ) );
+				ex.initCause( e );
+				throw ex;
+			}
+		}
+
+		@Override
+		protected void bindValue( PreparedStatement stmt, int iParm, Object value ) throws SQLException {
+			if( value instanceof Timestamp ) {
+				stmt.setTimestamp( iParm, ( Timestamp )value );
+			} else if( value instanceof Date ) {
+				stmt.setTimestamp( iParm, new Timestamp( ( ( Date )value ).getTime( ) ) );
+			} else {
+				stmt.setObject( iParm, value );
+			}
+		}
+	}
+}
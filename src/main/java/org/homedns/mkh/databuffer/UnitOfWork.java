@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.apache.log4j.Logger;
+import org.homedns.mkh.databuffer.api.DataBuffer;
+import org.homedns.mkh.databuffer.api.Metrics;
+
+/**
+ * Unit of work binds several data buffers of the same data source to one 
+ * connection and transaction. Bound data buffers retrieve and save data using
+ * the unit of work connection, their saves are committed or rolled back 
+ * together by the unit of work. Changes of the bound data buffers are saved 
+ * by {@link #commit()} in the same order as 
+ * {@link org.homedns.mkh.databuffer.api.DataBuffer#saveChanges()} does: 
+ * deletes of all data buffers go first in the reverse order the data buffers
+ * were added, then updates and inserts in the order they were added, so 
+ * master data buffer should be added before its details. 
+ * {@link org.homedns.mkh.databuffer.api.DataBuffer#saveChanges()} of the 
+ * bound data buffer saves nothing, its changes are kept pending until 
+ * {@link #commit()} saves and accepts them, so they are left unsaved if the
+ * unit of work is rolled back or closed without commit. Rows saved by 
+ * save and saveBatch are written in the unit of work transaction, their 
+ * commit interval is ignored. Bound data buffers must not be used 
+ * concurrently. Example:
+ * <p>
+ * <pre>
+ * try( UnitOfWork uow = manager.newUnitOfWork( ) ) {
+ *     uow.add( order ).add( orderLines );
+ *     order.updateValue( 0, "status", "closed" );
+ *     orderLines.deleteRow( 1 );
+ *     uow.commit( );
+ * }
+ * </pre>
+ */
+public class UnitOfWork implements AutoCloseable {
+	private static final Logger LOG = Logger.getLogger( UnitOfWork.class );
+
+	private DBConnection dbConn;
+	private List< AbstractDataBuffer > dataBuffers;
+	private Set< String > tables;
+	private Connection conn;
+	private Connection boundConn;
+	private boolean bAutoCommit;
+	private boolean bRollbackOnly;
+
+	/**
+	 * @param ds
+	 *            the data source
+	 */
+	public UnitOfWork( DataSource ds ) {
+		dbConn = ( DBConnection )ds;
+		dataBuffers = new ArrayList< >( );
+		tables = new LinkedHashSet< >( );
+	}
+
+	/**
+	 * Binds data buffer to the unit of work
+	 * 
+	 * @param db
+	 *            the data buffer
+	 * 
+	 * @return this unit of work
+	 */
+	public UnitOfWork add( DataBuffer db ) {
+		AbstractDataBuffer adb = ( AbstractDataBuffer )db;
+		if( adb.getDBConnection( ) != dbConn ) {
+			throw new IllegalArgumentException( db.getDescription( ).getName( ) + ": data buffer data source differs" );
+		}
+		if( adb.getUnitOfWork( ) != null && adb.getUnitOfWork( ) != this ) {
+			throw new IllegalStateException( db.getDescription( ).getName( ) + ": data buffer is bound to another unit of work" );
+		}
+		if( !dataBuffers.contains( adb ) ) {
+			adb.setUnitOfWork( this );
+			dataBuffers.add( adb );
+		}
+		return( this );
+	}
+
+	/**
+	 * Saves changes of the bound data buffers and commits transaction. If 
+	 * save fails transaction is rolled back.
+	 * 
+	 * @throws SQLException
+	 */
+	public void commit( ) throws SQLException {
+		long lStart = System.nanoTime( );
+		Object event = Events.begin( Events.SAVE );
+		Connection conn = getTransaction( );
+		List< AbstractDataBuffer.Changes > changes = new ArrayList< >( );
+		int iRowCount = 0;
+		try {
+			if( bRollbackOnly ) {
+				throw new SQLException( "unit of work is rolled back by the failed save" );
+			}
+			for( AbstractDataBuffer db : dataBuffers ) {
+				AbstractDataBuffer.Changes dbChanges = db.getChanges( );
+				changes.add( dbChanges );
+				iRowCount += dbChanges.size( );
+			}
+			// deletes go first to release unique keys reused by the updated or inserted rows
+			for( int i = dataBuffers.size( ) - 1; i >= 0; i-- ) {
+				dataBuffers.get( i ).saveDeleted( conn, changes.get( i ) );
+			}
+			for( int i = 0; i < dataBuffers.size( ); i++ ) {
+				dataBuffers.get( i ).saveUpdated( conn, changes.get( i ) );
+			}
+			for( int i = 0; i < dataBuffers.size( ); i++ ) {
+				dataBuffers.get( i ).saveInserted( conn, changes.get( i ) );
+			}
+			conn.commit( );
+		}
+		catch( SQLException e ) {
+			rollback( );
+			throw e;
+		}
+		for( int i = 0; i < dataBuffers.size( ); i++ ) {
+			AbstractDataBuffer db = dataBuffers.get( i );
+			db.acceptChanges( );
+			db.count( Metrics.ROWS_SAVED, changes.get( i ).size( ) );
+			db.invalidateResults( );
+		}
+		invalidate( );
+		Events.commit( event, getNames( ), "unitOfWork", null, iRowCount, 0 );
+		dbConn.getMetrics( ).record( Metrics.SAVE, null, dbConn.getName( ), System.nanoTime( ) - lStart );
+		LOG.debug( "commit: " + getNames( ) + ", rows: " + iRowCount );
+	}
+
+	/**
+	 * Rolls back transaction, data buffers changes aren't discarded.
+	 * 
+	 * @throws SQLException
+	 */
+	public void rollback( ) throws SQLException {
+		bRollbackOnly = false;
+		tables.clear( );
+		if( conn != null ) {
+			conn.rollback( );
+		}
+	}
+
+	/**
+	 * Rolls back not committed transaction, releases connection and unbinds 
+	 * data buffers.
+	 */
+	@Override
+	public void close( ) throws SQLException {
+		try {
+			if( conn != null ) {
+				try {
+					rollback( );
+					conn.setAutoCommit( bAutoCommit );
+				}
+				finally {
+					conn.close( );
+				}
+			}
+		}
+		finally {
+			conn = null;
+			boundConn = null;
+			for( AbstractDataBuffer db : dataBuffers ) {
+				db.setUnitOfWork( null );
+			}
+			dataBuffers.clear( );
+		}
+	}
+
+	/**
+	 * Returns connection for the bound data buffers. It can't be closed, 
+	 * committed or rolled back by the data buffers, rollback marks the unit of
+	 * work as failed, so it's rolled back by the next commit.
+	 * 
+	 * @return the connection
+	 * 
+	 * @throws SQLException
+	 */
+	Connection getConnection( ) throws SQLException {
+		if( boundConn == null ) {
+			Connection target = getTransaction( );
+			boundConn = ( Connection )Proxy.newProxyInstance( 
+				Connection.class.getClassLoader( ), 
+				new Class< ? >[] { Connection.class }, 
+				( proxy, method, args ) -> {
+					String sMethod = method.getName( );
+					if( args == null && ( "close".equals( sMethod ) || "commit".equals( sMethod ) ) ) {
+						return( null );
+					}
+					if( args == null && "rollback".equals( sMethod ) ) {
+						bRollbackOnly = true;
+						return( null );
+					}
+					try {
+						return( method.invoke( target, args ) );
+					}
+					catch( InvocationTargetException e ) {
+						throw e.getCause( );
+					}
+				}
+			);
+		}
+		return( boundConn );
+	}
+
+	/**
+	 * Adds table to invalidate its cached retrieve results when the 
+	 * transaction is committed.
+	 * 
+	 * @param sTable
+	 *            the update table name
+	 */
+	void invalidate( String sTable ) {
+		tables.add( sTable );
+	}
+
+	/**
+	 * Invalidates cached retrieve results of the committed tables.
+	 */
+	private void invalidate( ) {
+		for( String sTable : tables ) {
+			dbConn.getResultCache( ).invalidate( sTable );
+		}
+		tables.clear( );
+	}
+
+	/**
+	 * Returns transaction connection, the connection is acquired on first use.
+	 * 
+	 * @return the connection
+	 * 
+	 * @throws SQLException
+	 */
+	private Connection getTransaction( ) throws SQLException {
+		if( conn == null ) {
+			conn = dbConn.getConnection( DataBuffer.UPDATE, null );
+			bAutoCommit = conn.getAutoCommit( );
+			if( bAutoCommit ) {
+				conn.setAutoCommit( false );
+			}
+		}
+		return( conn );
+	}
+
+	/**
+	 * Returns bound data buffer names.
+	 * 
+	 * @return the comma separated data buffer names
+	 */
+	private String getNames( ) {
+		StringBuilder sb = new StringBuilder( );
+		for( AbstractDataBuffer db : dataBuffers ) {
+			if( sb.length( ) > 0 ) {
+				sb.append( ',' );
+			}
+			sb.append( db.getDescription( ).getName( ) );
+		}
+		return( sb.toString( ) );
+	}
+}
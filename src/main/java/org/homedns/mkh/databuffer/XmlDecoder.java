@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+
+package org.homedns.mkh.databuffer;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming WebRowSet XML decoder. Reads the XML schema written by 
+ * {@link javax.sql.rowset.WebRowSet#writeXml(java.io.Writer)} or 
+ * {@link org.homedns.mkh.databuffer.XmlEncoder}, values are converted 
+ * according to the data buffer description column types, properties and 
+ * metadata are skipped. Current and deleted rows are returned one by one, 
+ * row changes are collected to be applied after the rows are loaded. The 
+ * decoder isn't thread safe.
+ *
+ */
+class XmlDecoder {
+	private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance( );
+
+	static {
+		// external entities aren't resolved
+		FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+		FACTORY.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+	}
+
+	private XMLStreamReader reader;
+	private Column[] cols;
+	private StringBuilder text = new StringBuilder( );
+	private int iRowCount = 0;
+	private List< CellUpdate > updates = new ArrayList< >( );
+	private List< Integer > deleted = new ArrayList< >( );
+	private List< Object[] > inserted = new ArrayList< >( );
+
+	/**
+	 * @param reader
+	 *            the source xml reader
+	 * @param cols
+	 *            the data buffer columns in the column number order
+	 */
+	public XmlDecoder( XMLStreamReader reader, Column[] cols ) {
+		this.reader = reader;
+		this.cols = cols;
+	}
+
+	/**
+	 * Returns xml reader for the input stream, encoding is taken from the xml
+	 * declaration
+	 * 
+	 * @param in
+	 *            the input stream
+	 * 
+	 * @return the xml reader
+	 * 
+	 * @throws XMLStreamException
+	 */
+	public static XMLStreamReader createReader( InputStream in ) throws XMLStreamException {
+		return( FACTORY.createXMLStreamReader( in ) );
+	}
+
+	/**
+	 * Returns xml reader for the character stream
+	 * 
+	 * @param in
+	 *            the character stream
+	 * 
+	 * @return the xml reader
+	 * 
+	 * @throws XMLStreamException
+	 */
+	public static XMLStreamReader createReader( Reader in ) throws XMLStreamException {
+		return( FACTORY.createXMLStreamReader( in ) );
+	}
+
+	/**
+	 * Reads next current or deleted row, inserted rows are collected 
+	 * 
+	 * @param values
+	 *            the row original values in the column number order
+	 * 
+	 * @return false if there are no more rows
+	 * 
+	 * @throws XMLStreamException
+	 * @throws ParseException
+	 */
+	public boolean next( Object[] values ) throws XMLStreamException, ParseException {
+		while( reader.hasNext( ) ) {
+			if( reader.next( ) != XMLStreamConstants.START_ELEMENT ) {
+				continue;
+			}
+			String sName = reader.getLocalName( );
+			if( XmlEncoder.INSERT_ROW.equals( sName ) ) {
+				Object[] row = new Object[ cols.length ];
+				readRow( row );
+				inserted.add( row );
+			} else if( XmlEncoder.CURRENT_ROW.equals( sName ) || XmlEncoder.DELETE_ROW.equals( sName ) ) {
+				iRowCount++;
+				if( XmlEncoder.DELETE_ROW.equals( sName ) ) {
+					deleted.add( iRowCount );
+				}
+				readRow( values );
+				return( true );
+			}
+		}
+		return( false );
+	}
+
+	/**
+	 * Returns updated cells of the current rows
+	 * 
+	 * @return the updated cells
+	 */
+	public List< CellUpdate > getUpdates( ) {
+		return( updates );
+	}
+
+	/**
+	 * Returns deleted rows indexes in the returned rows order
+	 * 
+	 * @return the deleted rows indexes, 1-based
+	 */
+	public List< Integer > getDeleted( ) {
+		return( deleted );
+	}
+
+	/**
+	 * Returns inserted rows
+	 * 
+	 * @return the inserted rows values
+	 */
+	public List< Object[] > getInserted( ) {
+		return( inserted );
+	}
+
+	/**
+	 * Reads row element content
+	 * 
+	 * @param values
+	 *            the row values
+	 * 
+	 * @throws XMLStreamException
+	 * @throws ParseException
+	 */
+	private void readRow( Object[] values ) throws XMLStreamException, ParseException {
+		Arrays.fill( values, null );
+		int iCol = 0;
+		while( reader.nextTag( ) == XMLStreamConstants.START_ELEMENT ) {
+			String sName = reader.getLocalName( );
+			if( XmlEncoder.COLUMN_VALUE.equals( sName ) ) {
+				if( iCol >= values.length ) {
+					throw new IllegalArgumentException( "Exceeds available columns count" );
+				}
+				values[ iCol ] = readValue( iCol );
+				iCol++;
+			} else if( XmlEncoder.UPDATE_ROW.equals( sName ) && iCol > 0 ) {
+				updates.add( new CellUpdate( iRowCount, iCol, readValue( iCol - 1 ) ) );
+			} else {
+				throw new XMLStreamException( "Unexpected element: " + sName, reader.getLocation( ) );
+			}
+		}
+	}
+
+	/**
+	 * Reads value element content
+	 * 
+	 * @param iCol
+	 *            the column index, 0-based
+	 * 
+	 * @return the value or null
+	 * 
+	 * @throws XMLStreamException
+	 * @throws ParseException
+	 */
+	private Object readValue( int iCol ) throws XMLStreamException, ParseException {
+		text.setLength( 0 );
+		boolean bNull = false;
+		int iEvent;
+		while( ( iEvent = reader.next( ) ) != XMLStreamConstants.END_ELEMENT ) {
+			if( iEvent == XMLStreamConstants.START_ELEMENT ) {
+				bNull = XmlEncoder.NULL.equals( reader.getLocalName( ) );
+				reader.nextTag( );
+			} else if( reader.hasText( ) ) {
+				text.append( reader.getTextCharacters( ), reader.getTextStart( ), reader.getTextLength( ) );
+			}
+		}
+		if( bNull ) {
+			return( null );
+		}
+		try {
+			return( parse( cols[ iCol ].getType( ), text.toString( ) ) );
+		}
+		catch( ParseException | NumberFormatException e ) {
+			ParseException ex = new ParseException( cols[ iCol ].getName( ) + ": " + e.getMessage( ), 0 );
+			ex.initCause( e );
+			throw ex;
+		}
+	}
+
+	/**
+	 * Converts text to the column type, timestamps are epoch milliseconds as 
+	 * WebRowSet writes them or text in the server date format
+	 * 
+	 * @param type
+	 *            the column type
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return the value or null
+	 * 
+	 * @throws ParseException
+	 */
+	private static Object parse( Type type, String sValue ) throws ParseException {
+		if( type == Type.TIMESTAMP && isInteger( sValue ) ) {
+			return( new Timestamp( Long.parseLong( sValue ) ) );
+		}
+		return( TypeCodec.get( type ).parse( sValue ) );
+	}
+
+	/**
+	 * Returns true if text is integer number
+	 * 
+	 * @param sValue
+	 *            the text
+	 * 
+	 * @return true if text is integer number
+	 */
+	private static boolean isInteger( String sValue ) {
+		int iStart = sValue.startsWith( "-" ) ? 1 : 0;
+		if( sValue.length( ) <= iStart ) {
+			return( false );
+		}
+		for( int i = iStart; i < sValue.length( ); i++ ) {
+			if( !Character.isDigit( sValue.charAt( i ) ) ) {
+				return( false );
+			}
+		}
+		return( true );
+	}
+
+	/**
+	 * Updated cell of the current row
+	 */
+	static class CellUpdate {
+		private int iRow;
+		private int iCol;
+		private Object value;
+
+		/**
+		 * @param iRow
+		 *            the row index, 1-based
+		 * @param iCol
+		 *            the column index, 1-based
+		 * @param value
+		 *            the new value
+		 */
+		private CellUpdate( int iRow, int iCol, Object value ) {
+			this.iRow = iRow;
+			this.iCol = iCol;
+			this.value = value;
+		}
+
+		public int getRow( ) {
+			return( iRow );
+		}
+
+		public int getCol( ) {
+			return( iCol );
+		}
+
+		public Object getValue( ) {
+			return( value );
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2026 Mikhail Khodonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * $Id$
+ */
+
+package org.homedns.mkh.databuffer;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.BitSet;
+import java.util.Date;
+import javax.sql.RowSetMetaData;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Streaming WebRowSet XML encoder. Writes the same XML schema as 
+ * {@link javax.sql.rowset.WebRowSet#writeXml(java.io.Writer)} does, 
+ * properties and metadata are taken from the data buffer description, rows 
+ * are written one by one. Values are written as WebRowSet does, i.e. 
+ * timestamps as epoch milliseconds, FLOAT as float. The encoder isn't thread
+ * safe.
+ *
+ */
+class XmlEncoder {
+	public static final String NAMESPACE = "http://java.sun.com/xml/ns/jdbc";
+	public static final String CURRENT_ROW = "currentRow";
+	public static final String INSERT_ROW = "insertRow";
+	public static final String DELETE_ROW = "deleteRow";
+	public static final String UPDATE_ROW = "updateRow";
+	public static final String COLUMN_VALUE = "columnValue";
+	public static final String NULL = "null";
+	public static final String EMPTY_STRING = "emptyString";
+	private static final String XSI = "http://www.w3.org/2001/XMLSchema-instance";
+	private static final String SCHEMA_LOCATION = NAMESPACE + " http://java.sun.com/xml/ns/jdbc/webrowset.xsd";
+	private static final char[] INDENT = "\n                ".toCharArray( );
+	private static final XMLOutputFactory FACTORY = XMLOutputFactory.newInstance( );
+
+	private XMLStreamWriter writer;
+	private int[] aiSQLType;
+	private int iDepth = 0;
+
+	/**
+	 * @param writer
+	 *            the target xml writer
+	 * @param desc
+	 *            the data buffer description
+	 */
+	public XmlEncoder( XMLStreamWriter writer, DataBufferDesc desc ) {
+		this.writer = writer;
+		Column[] cols = desc.getColumns( );
+		aiSQLType = new int[ cols.length ];
+		for( Column col : cols ) {
+			aiSQLType[ col.getColNum( ) ] = col.getType( ).getSQLType( );
+		}
+	}
+
+	/**
+	 * Returns xml writer for the UTF-8 encoded output stream
+	 * 
+	 * @param out
+	 *            the output stream
+	 * 
+	 * @return the xml writer
+	 * 
+	 * @throws XMLStreamException
+	 */
+	public static XMLStreamWriter createWriter( OutputStream out ) throws XMLStreamException {
+		return( FACTORY.createXMLStreamWriter( out, "UTF-8" ) );
+	}
+
+	/**
+	 * Returns xml writer for the character stream
+	 * 
+	 * @param writer
+	 *            the character stream
+	 * 
+	 * @return the xml writer
+	 * 
+	 * @throws XMLStreamException
+	 */
+	public static XMLStreamWriter createWriter( Writer writer ) throws XMLStreamException {
+		return( FACTORY.createXMLStreamWriter( writer ) );
+	}
+
+	/**
+	 * Writes document start, properties, metadata and opens data element
+	 * 
+	 * @param desc
+	 *            the data buffer description
+	 * @param sCommand
+	 *            the retrieve query
+	 * @param iKeyCol
+	 *            the key column index or 0 if there is no key column
+	 * @param iMaxRows
+	 *            the maximum number of rows
+	 * 
+	 * @throws XMLStreamException
+	 * @throws SQLException
+	 */
+	public void header( DataBufferDesc desc, String sCommand, int iKeyCol, int iMaxRows ) throws XMLStreamException, SQLException {
+		writer.writeStartDocument( "1.0" );
+		writer.writeCharacters( "\n" );
+		writer.setDefaultNamespace( NAMESPACE );
+		writer.writeStartElement( NAMESPACE, "webRowSet" );
+		writer.writeDefaultNamespace( NAMESPACE );
+		writer.writeNamespace( "xsi", XSI );
+		writer.writeAttribute( XSI, "schemaLocation", SCHEMA_LOCATION );
+		iDepth++;
+		start( "properties" );
+		property( "command", sCommand );
+		property( "concurrency", 1008 );
+		property( "datasource", null );
+		property( "escape-processing", true );
+		property( "fetch-direction", 1000 );
+		property( "fetch-size", 0 );
+		property( "isolation-level", 2 );
+		start( "key-columns" );
+		if( iKeyCol > 0 ) {
+			property( "column", iKeyCol );
+		}
+		end( );
+		start( "map" );
+		end( );
+		property( "max-field-size", 0 );
+		property( "max-rows", iMaxRows );
+		property( "query-timeout", 0 );
+		property( "read-only", true );
+		property( "rowset-type", "ResultSet.TYPE_SCROLL_INSENSITIVE" );
+		property( "show-deleted", false );
+		property( "table-name", desc.getTable( ).getUpdateTableName( ) );
+		property( "url", null );
+		start( "sync-provider" );
+		property( "sync-provider-name", "com.sun.rowset.providers.RIOptimisticProvider" );
+		property( "sync-provider-vendor", "Oracle Corporation" );
+		property( "sync-provider-version", "1.0" );
+		property( "sync-provider-grade", 2 );
+		property( "data-source-lock", 1 );
+		end( );
+		end( );
+		RowSetMetaData md = desc.getMetaData( );
+		start( "metadata" );
+		property( "column-count", md.getColumnCount( ) );
+		for( int iCol = 1; iCol <= md.getColumnCount( ); iCol++ ) {
+			start( "column-definition" );
+			property( "column-index", iCol );
+			property( "auto-increment", md.isAutoIncrement( iCol ) );
+			property( "case-sensitive", md.isCaseSensitive( iCol ) );
+			property( "currency", md.isCurrency( iCol ) );
+			property( "nullable", md.isNullable( iCol ) );
+			property( "signed", md.isSigned( iCol ) );
+			property( "searchable", md.isSearchable( iCol ) );
+			property( "column-display-size", md.getColumnDisplaySize( iCol ) );
+			property( "column-label", md.getColumnLabel( iCol ) );
+			property( "column-name", md.getColumnName( iCol ) );
+			property( "schema-name", md.getSchemaName( iCol ) );
+			property( "column-precision", md.getPrecision( iCol ) );
+			property( "column-scale", md.getScale( iCol ) );
+			property( "table-name", md.getTableName( iCol ) );
+			property( "catalog-name", md.getCatalogName( iCol ) );
+			property( "column-type", md.getColumnType( iCol ) );
+			property( "column-type-name", md.getColumnTypeName( iCol ) );
+			end( );
+		}
+		end( );
+		start( "data" );
+	}
+
+	/**
+	 * Writes row
+	 * 
+	 * @param sTag
+	 *            the row element name {@link #CURRENT_ROW}, {@link #INSERT_ROW},
+	 *            {@link #DELETE_ROW}
+	 * @param values
+	 *            the row values in the column number order
+	 * @param updated
+	 *            the updated columns indexes or null
+	 * @param updates
+	 *            the row current values or null
+	 * 
+	 * @throws XMLStreamException
+	 */
+	public void row( String sTag, Object[] values, BitSet updated, Object[] updates ) throws XMLStreamException {
+		start( sTag );
+		for( int iCol = 0; iCol < values.length; iCol++ ) {
+			value( COLUMN_VALUE, iCol, values[ iCol ] );
+			if( updated != null && updated.get( iCol + 1 ) ) {
+				value( UPDATE_ROW, iCol, updates[ iCol ] );
+			}
+		}
+		end( );
+	}
+
+	/**
+	 * Closes data and document elements and flushes the writer
+	 * 
+	 * @throws XMLStreamException
+	 */
+	public void finish( ) throws XMLStreamException {
+		end( );
+		end( );
+		writer.writeEndDocument( );
+		writer.flush( );
+	}
+
+	/**
+	 * Writes value element
+	 * 
+	 * @param sTag
+	 *            the element name
+	 * @param iCol
+	 *            the column index, 0-based
+	 * @param value
+	 *            the value or null
+	 * 
+	 * @throws XMLStreamException
+	 */
+	private void value( String sTag, int iCol, Object value ) throws XMLStreamException {
+		indent( );
+		writer.writeStartElement( sTag );
+		if( value == null ) {
+			writer.writeEmptyElement( NULL );
+		} else {
+			String sValue = format( iCol, value );
+			if( sValue.isEmpty( ) ) {
+				writer.writeEmptyElement( EMPTY_STRING );
+			} else {
+				writer.writeCharacters( sValue );
+			}
+		}
+		writer.writeEndElement( );
+	}
+
+	/**
+	 * Formats not null value the same way as WebRowSet does
+	 * 
+	 * @param iCol
+	 *            the column index, 0-based
+	 * @param value
+	 *            the value
+	 * 
+	 * @return the text
+	 */
+	private String format( int iCol, Object value ) {
+		switch( aiSQLType[ iCol ] ) {
+			case Types.TIMESTAMP:
+				if( value instanceof Date ) {
+					return( String.valueOf( ( ( Date )value ).getTime( ) ) );
+				}
+				break;
+			case Types.FLOAT:
+				if( value instanceof Number ) {
+					return( String.valueOf( ( ( Number )value ).floatValue( ) ) );
+				}
+				break;
+			case Types.DOUBLE:
+				if( value instanceof Number ) {
+					return( String.valueOf( ( ( Number )value ).doubleValue( ) ) );
+				}
+				break;
+			case Types.BIGINT:
+				if( value instanceof Number ) {
+					return( String.valueOf( ( ( Number )value ).longValue( ) ) );
+				}
+				break;
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				if( value instanceof Number ) {
+					return( String.valueOf( ( ( Number )value ).intValue( ) ) );
+				}
+				break;
+			default:
+		}
+		return( value.toString( ) );
+	}
+
+	/**
+	 * Writes property element
+	 * 
+	 * @param sTag
+	 *            the element name
+	 * @param value
+	 *            the property value or null
+	 * 
+	 * @throws XMLStreamException
+	 */
+	private void property( String sTag, Object value ) throws XMLStreamException {
+		indent( );
+		writer.writeStartElement( sTag );
+		if( value == null ) {
+			writer.writeEmptyElement( NULL );
+		} else {
+			writer.writeCharacters( value.toString( ) );
+		}
+		writer.writeEndElement( );
+	}
+
+	/**
+	 * Writes start element on the new line
+	 * 
+	 * @param sTag
+	 *            the element name
+	 * 
+	 * @throws XMLStreamException
+	 */
+	private void start( String sTag ) throws XMLStreamException {
+		indent( );
+		writer.writeStartElement( sTag );
+		iDepth++;
+	}
+
+	/**
+	 * Writes end element on the new line
+	 * 
+	 * @throws XMLStreamException
+	 */
+	private void end( ) throws XMLStreamException {
+		iDepth--;
+		indent( );
+		writer.writeEndElement( );
+	}
+
+	/**
+	 * Writes new line and indentation of the current depth
+	 * 
+	 * @throws XMLStreamException
+	 */
+	private void indent( ) throws XMLStreamException {
+		writer.writeCharacters( INDENT, 0, 1 + Math.min( iDepth * 2, INDENT.length - 1 ) );
+	}
+}
@@ -17,38 +17,231 @@
 package org.homedns.mkh.databuffer.api;
 
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.sql.SQLException;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 
+import org.homedns.mkh.databuffer.Column;
+import org.homedns.mkh.databuffer.ColumnarDataBuffer;
 import org.homedns.mkh.databuffer.DataBufferImpl;
 import org.apache.log4j.Logger;
 import org.homedns.mkh.databuffer.DBConnection;
 import org.homedns.mkh.databuffer.DataBufferDesc;
+import org.homedns.mkh.databuffer.Filter;
+import org.homedns.mkh.databuffer.Table;
+import org.homedns.mkh.databuffer.QueryCache;
+import org.homedns.mkh.databuffer.Value;
 import org.homedns.mkh.util.Util;
 import com.google.gson.stream.JsonReader;
 
 /**
  * Base data buffer manager, DataBufferManager implementation example
- * It must exist data source with name 'default'
+ * It must exist data source with name 'default'.
+ * Parsed and initialized data buffer descriptions are cached per description
+ * name and locale and shared by the data buffers, so they should be treated as 
+ * read only. Descriptions loaded from the file system are invalidated when 
+ * the file is changed, descriptions loaded from the class path resources are
+ * cached for the life of the manager. Drop down values are shared through 
+ * the {@link DropDownCache}. Cached descriptions aren't changed, when drop 
+ * down values are refreshed the description copy with new values replaces 
+ * the cached one and data buffers requested later get it. Data buffers report to the {@link Metrics} set by 
+ * {@link #setMetrics(Metrics)}, tagged by data buffer name and data source name.
  */
-public class BaseDataBufferManager implements DataBufferManager {
+public class BaseDataBufferManager implements DataBufferManager, AutoCloseable {
 	private static final Logger LOG = Logger.getLogger( BaseDataBufferManager.class );
 
 	private ConcurrentHashMap< String, DataSource > dataSources;
+	private ConcurrentHashMap< String, DataBufferDesc > descs;
+	private AtomicLong generation;
 	private Locale locale;
 	private Path path;
 	private boolean bResource;
 	private Class< ? > type;
+	private WatchService watcher;
+	private DropDownCache dropDowns;
+	private Context loader;
+	private volatile boolean bCache;
+	private volatile Metrics metrics;
+	private volatile int iQueryCacheSize;
+	private volatile boolean bCoalescing;
+	private volatile Executor executor;
+	private volatile int iMaxInValues;
 
 	public BaseDataBufferManager( ) throws SQLException {
 		dataSources = new ConcurrentHashMap< >( );
+		descs = new ConcurrentHashMap< >( );
+		generation = new AtomicLong( );
 		locale = DEFAULT_LOCALE;
+		metrics = Metrics.NOOP;
+		iQueryCacheSize = QueryCache.DEFAULT_SIZE;
+		bCoalescing = true;
+		iMaxInValues = Filter.DEFAULT_MAX_IN_VALUES;
+		dropDowns = new DropDownCache( );
+		loader = new Context( ) {
+			@Override
+			public DataBuffer getDataBuffer( String sName ) throws Exception {
+				return( BaseDataBufferManager.this.getDataBuffer( sName ) );
+			} 
+		};
+	}
+
+	/**
+	 * Stops watching data buffer description files and clears descriptions cache
+	 */
+	@Override
+	public void close( ) {
+		stopWatcher( );
+		invalidate( );
+		dropDowns.close( );
+	}
+
+	/**
+	 * Returns drop down values cache
+	 * 
+	 * @return the drop down values cache
+	 */
+	public DropDownCache getDropDownCache( ) {
+		return( dropDowns );
+	}
+
+	/**
+	 * Returns metrics
+	 * 
+	 * @return the metrics
+	 */
+	public Metrics getMetrics( ) {
+		return( metrics );
+	}
+
+	/**
+	 * Sets metrics to all data sources, data sources added later get them too
+	 * 
+	 * @param metrics the metrics to set, null turns metrics off
+	 */
+	public void setMetrics( Metrics metrics ) {
+		this.metrics = ( metrics == null ) ? Metrics.NOOP : metrics;
+		for( DataSource ds : dataSources.values( ) ) {
+			( ( DBConnection )ds ).setMetrics( this.metrics );
+		}
+	}
+
+	/**
+	 * Returns maximum number of modified retrieve queries cached per data 
+	 * buffer description
+	 * 
+	 * @return the queries cache size
+	 */
+	public int getQueryCacheSize( ) {
+		return( iQueryCacheSize );
+	}
+
+	/**
+	 * Sets maximum number of modified retrieve queries cached per data buffer
+	 * description, applies to the cached descriptions too
+	 * 
+	 * @param iQueryCacheSize the queries cache size to set, 0 turns off 
+	 * modified queries caching, the description query is parsed once anyway
+	 */
+	public void setQueryCacheSize( int iQueryCacheSize ) {
+		this.iQueryCacheSize = iQueryCacheSize;
+		for( DataBufferDesc desc : descs.values( ) ) {
+			desc.getQueryCache( ).setMaxSize( iQueryCacheSize );
+		}
+	}
+
+	/**
+	 * Returns executor of the asynchronous data buffer operations
+	 * 
+	 * @return the executor or null if the data sources default executor is used
+	 */
+	public Executor getExecutor( ) {
+		return( executor );
+	}
+
+	/**
+	 * Sets executor of the asynchronous data buffer operations to all data 
+	 * sources, data sources added later get it too
+	 * 
+	 * @param executor the executor to set, null sets the default executor 
+	 * {@link DBConnection#getExecutor()}
+	 */
+	public void setExecutor( Executor executor ) {
+		this.executor = executor;
+		for( DataSource ds : dataSources.values( ) ) {
+			( ( DBConnection )ds ).setExecutor( executor );
+		}
+	}
+
+	/**
+	 * Returns true if identical concurrent retrieves are coalesced
+	 * 
+	 * @return true if identical concurrent retrieves are coalesced
+	 */
+	public boolean isCoalescing( ) {
+		return( bCoalescing );
+	}
+
+	/**
+	 * Turns coalescing of identical concurrent retrieves on or off for all 
+	 * data sources, it's on by default. Identical retrieves in flight are 
+	 * executed once and each data buffer gets its own copy of the rows.
+	 * 
+	 * @param bCoalescing true to coalesce identical concurrent retrieves
+	 */
+	public void setCoalescing( boolean bCoalescing ) {
+		this.bCoalescing = bCoalescing;
+		for( DataSource ds : dataSources.values( ) ) {
+			( ( DBConnection )ds ).setCoalescing( bCoalescing );
+		}
+	}
+
+	/**
+	 * Returns maximum number of filter IN values
+	 * 
+	 * @return the maximum number of IN values
+	 */
+	public int getMaxInValues( ) {
+		return( iMaxInValues );
+	}
+
+	/**
+	 * Sets maximum number of filter IN values to all data sources, data 
+	 * sources added later get it too. Longer IN values lists are rejected on 
+	 * retrieve, shorter ones are padded up to this number at most.
+	 * 
+	 * @param iMaxInValues the maximum number of IN values to set, it must be 
+	 * positive
+	 */
+	public void setMaxInValues( int iMaxInValues ) {
+		if( iMaxInValues < 1 ) {
+			throw new IllegalArgumentException( "maximum number of IN values must be positive: " + iMaxInValues );
+		}
+		this.iMaxInValues = iMaxInValues;
+		for( DataSource ds : dataSources.values( ) ) {
+			( ( DBConnection )ds ).setMaxInValues( iMaxInValues );
+		}
+	}
+
+	/**
+	 * Clears data buffer descriptions cache
+	 */
+	public void invalidate( ) {
+		generation.incrementAndGet( );
+		descs.clear( );
 	}
 
 	/**
@@ -72,7 +265,12 @@ public class BaseDataBufferManager implements DataBufferManager {
 	 */
 	@Override
 	public void addDataSource( GenericDataSource ds ) {
-		dataSources.put( ds.getName( ), new DBConnection( ds.getDataSource( ) ) );
+		DBConnection dbConn = new DBConnection( ds.getDataSource( ), ds.getName( ) );
+		dbConn.setMetrics( metrics );
+		dbConn.setCoalescing( bCoalescing );
+		dbConn.setExecutor( executor );
+		dbConn.setMaxInValues( iMaxInValues );
+		dataSources.put( ds.getName( ), dbConn );
 	}
 
 	/**
@@ -89,14 +287,9 @@ public class BaseDataBufferManager implements DataBufferManager {
 	@Override
 	public DataBuffer getDataBuffer( String sName, String sDataSourceName ) throws Exception {
 		DataBufferDesc desc = getDataBufferDesc( sName );
-		desc.init( 
-			new Context( ) {
-				@Override
-				public DataBuffer getDataBuffer( String sName ) throws Exception {
-					return( BaseDataBufferManager.this.getDataBuffer( sName ) );
-				} 
-			} 
-		);
+		if( Table.COLUMNAR.equals( desc.getTable( ).getStorage( ) ) ) {
+			return( new ColumnarDataBuffer( desc, getDataSource( sDataSourceName ) ) );
+		}
 		return( new DataBufferImpl( desc, getDataSource( sDataSourceName ) ) );
 	}
 	
@@ -112,31 +305,129 @@ public class BaseDataBufferManager implements DataBufferManager {
 	 * @see org.homedns.mkh.databuffer.api.DataBufferManager#setResource(java.nio.file.Path, boolean, java.lang.Class)
 	 */
 	@Override
-	public void setResource( Path path, boolean bResource, Class< ? > type ) {
+	public synchronized void setResource( Path path, boolean bResource, Class< ? > type ) {
+		stopWatcher( );
 		this.path = path;
 		this.bResource = bResource;
 		if( bResource ) {
 			this.type =type;
+			bCache = true;
+		} else {
+			bCache = startWatcher( path );
 		}
+		invalidate( );
 	}
 
 	/**
-	 * Returns data buffer description object
+	 * Returns initialized data buffer description object from the cache, the
+	 * description is loaded if it isn't cached yet. Description initialization
+	 * may request others data buffers (drop down data buffers), therefore it's
+	 * performed outside of the cache update.
 	 * 
-	 * @param sName the data buffer description file name
+	 * @param sName the data buffer description name
 	 * 
 	 * @return the data buffer description object
 	 * 
 	 * @throws Exception
 	 */
 	private DataBufferDesc getDataBufferDesc( String sName ) throws Exception {
-		DataBufferDesc desc = null;
+		String sPath = getDescPath( sName );
+		DataBufferDesc desc = descs.get( sPath );
+		if( desc == null ) {
+			long lGeneration = generation.get( );
+			desc = loadDataBufferDesc( sPath );
+			desc.init( 
+				new Context( ) {
+					@Override
+					public DataBuffer getDataBuffer( String sName ) throws Exception {
+						return( BaseDataBufferManager.this.getDataBuffer( sName ) );
+					} 
+
+					@Override
+					public Value[] getDropDownValues( 
+						String sDDDBName, String sDisplayCol, String sDataCol 
+					) throws Exception {
+						return( dropDowns.get( loader, sDDDBName, sDisplayCol, sDataCol ) );
+					}
+
+					@Override
+					public int getQueryCacheSize( ) {
+						return( iQueryCacheSize );
+					}
+				} 
+			);
+			// don't cache description if it was invalidated while loading
+			if( bCache && lGeneration == generation.get( ) ) {
+				DataBufferDesc cached = descs.putIfAbsent( sPath, desc );
+				if( cached != null ) {
+					desc = cached;
+				}
+			}
+		}
+		return( refreshDropDowns( sPath, desc ) );
+	}
+
+	/**
+	 * Returns description with the current drop down values from the cache. 
+	 * Description isn't changed, if any values were refreshed its copy with 
+	 * new values is returned and replaces it in the descriptions cache.
+	 * 
+	 * @param sPath the data buffer description path
+	 * @param desc the data buffer description
+	 * 
+	 * @return the description with the current drop down values
+	 * 
+	 * @throws Exception
+	 */
+	private DataBufferDesc refreshDropDowns( String sPath, DataBufferDesc desc ) throws Exception {
+		Column[] cols = null;
+		for( Column col : desc.getColumns( ) ) {
+			if(	Column.DDDB.equals( col.getStyle( ) ) ) {
+				// cache returns the same array until values are refreshed
+				Value[] values = dropDowns.get( loader, col.getDDDBName( ), col.getDisplayCol( ), col.getDataCol( ) );
+				if( values != col.getValues( ) ) {
+					if( cols == null ) {
+						cols = desc.getColumns( ).clone( );
+					}
+					cols[ col.getColNum( ) ] = col.withValues( values );
+				}
+			}
+		}
+		if( cols == null ) {
+			return( desc );
+		}
+		DataBufferDesc refreshed = desc.withColumns( cols );
+		descs.replace( sPath, desc, refreshed );
+		return( refreshed );
+	}
+
+	/**
+	 * Returns data buffer description path for the current locale
+	 * 
+	 * @param sName the data buffer description name
+	 * 
+	 * @return the data buffer description path
+	 */
+	private String getDescPath( String sName ) {
 		sName = (
 			( DEFAULT_LOCALE.equals( locale ) ) ? 
 			sName + ".dbuf" : 
 			sName + "_" + locale.getLanguage( ) + ".dbuf"
 		);
-		String sPath = Paths.get( path.toString( ), sName ).toString( );
+		return( Paths.get( path.toString( ), sName ).toString( ) );
+	}
+
+	/**
+	 * Loads data buffer description object
+	 * 
+	 * @param sPath the data buffer description file path
+	 * 
+	 * @return the data buffer description object
+	 * 
+	 * @throws Exception
+	 */
+	private DataBufferDesc loadDataBufferDesc( String sPath ) throws Exception {
+		DataBufferDesc desc = null;
 		LOG.debug( sPath );
 		try( JsonReader in = 
 			new JsonReader( 
@@ -148,4 +439,81 @@ public class BaseDataBufferManager implements DataBufferManager {
 		LOG.debug( desc );
 		return( desc );
 	}
+
+	/**
+	 * Starts watching data buffer description files directory, changed
+	 * descriptions are removed from the cache
+	 * 
+	 * @param dir the data buffer descriptions directory
+	 * 
+	 * @return true if watching is started
+	 */
+	private boolean startWatcher( Path dir ) {
+		try {
+			WatchService ws = FileSystems.getDefault( ).newWatchService( );
+			dir.register( 
+				ws, 
+				StandardWatchEventKinds.ENTRY_CREATE, 
+				StandardWatchEventKinds.ENTRY_MODIFY, 
+				StandardWatchEventKinds.ENTRY_DELETE 
+			);
+			Thread thread = new Thread( ( ) -> watch( ws, dir ), "dbuf-watcher" );
+			thread.setDaemon( true );
+			thread.start( );
+			watcher = ws;
+			return( true );
+		}
+		catch( IOException e ) {
+			LOG.error( "unable to watch " + dir + ", descriptions cache is off: " + e.getMessage( ), e );
+			return( false );
+		}
+	}
+
+	/**
+	 * Stops watching data buffer description files
+	 */
+	private void stopWatcher( ) {
+		if( watcher != null ) {
+			try {
+				watcher.close( );
+			}
+			catch( IOException e ) {
+				LOG.error( e.getMessage( ), e );
+			}
+			watcher = null;
+		}
+	}
+
+	/**
+	 * Processes watch events until the watch service is closed
+	 * 
+	 * @param ws the watch service
+	 * @param dir the watched directory
+	 */
+	private void watch( WatchService ws, Path dir ) {
+		try {
+			while( true ) {
+				WatchKey key = ws.take( );
+				generation.incrementAndGet( );
+				for( WatchEvent< ? > event : key.pollEvents( ) ) {
+					if( event.kind( ) == StandardWatchEventKinds.OVERFLOW ) {
+						descs.clear( );
+					} else {
+						String sPath = Paths.get( dir.toString( ), event.context( ).toString( ) ).toString( );
+						LOG.debug( "description changed: " + sPath );
+						descs.remove( sPath );
+					}
+				}
+				if( !key.reset( ) ) {
+					// directory is no longer accessible
+					bCache = false;
+					descs.clear( );
+					break;
+				}
+			}
+		}
+		catch( InterruptedException | ClosedWatchServiceException e ) {
+			LOG.debug( "descriptions watcher stopped" );
+		}
+	}
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Mikhail Khodonov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.homedns.mkh.databuffer.api;
+
+/**
+ * Batch listener, receives progress of
+ * {@link org.homedns.mkh.databuffer.api.DataBuffer#saveBatch(int)} after each
+ * batch of {@link org.homedns.mkh.databuffer.Table#getBatchSize()} rows is
+ * executed. It's called in the thread which saves data.
+ *
+ */
+@FunctionalInterface
+public interface BatchListener {
+
+	/**
+	 * Accepts executed batch progress
+	 *
+	 * @param sDataBufferName
+	 *            the data buffer name
+	 * @param iSaved
+	 *            the number of rows saved so far including this batch
+	 * @param iTotal
+	 *            the total number of rows to save
+	 * @param iAffected
+	 *            the number of database rows affected by this batch, -1 if
+	 *            the driver doesn't report it
+	 * @param iCommitted
+	 *            the number of rows committed so far, it's equal to iSaved
+	 *            in the auto commit mode
+	 */
+	public void batchSaved( String sDataBufferName, int iSaved, int iTotal, int iAffected, int iCommitted );
+}
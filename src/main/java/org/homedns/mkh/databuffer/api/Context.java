@@ -16,6 +16,11 @@
 
 package org.homedns.mkh.databuffer.api;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.homedns.mkh.databuffer.QueryCache;
+import org.homedns.mkh.databuffer.Value;
+
 /**
  * Context object
  *
@@ -32,4 +37,41 @@ public interface Context {
 	 * @throws Exception
 	 */
 	public DataBuffer getDataBuffer( String sName ) throws Exception;
+
+	/**
+	 * Returns drop down data buffer values, by default retrieves the drop down 
+	 * data buffer each time
+	 * 
+	 * @param sDDDBName the drop down data buffer name
+	 * @param sDisplayCol the display column name
+	 * @param sDataCol the data column name
+	 * 
+	 * @return the drop down values
+	 * 
+	 * @throws Exception
+	 */
+	public default Value[] getDropDownValues( String sDDDBName, String sDisplayCol, String sDataCol ) throws Exception {
+		try( DataBuffer dddb = getDataBuffer( sDDDBName ) ) {
+			dddb.retrieve( );
+			String[] asColName = { sDisplayCol, sDataCol };
+			List< Value > values = new ArrayList< Value >( );
+			for( String[] row : dddb.getData( asColName ) ) {
+				Value value = new Value( );
+				value.setDisplayValue( row[ 0 ] );
+				value.setDataValue( row[ 1 ] );
+				values.add( value );
+			}
+			return( values.toArray( new Value[ values.size( ) ] ) );
+		}
+	}
+
+	/**
+	 * Returns maximum number of modified retrieve queries cached per data 
+	 * buffer description
+	 * 
+	 * @return the queries cache size
+	 */
+	public default int getQueryCacheSize( ) {
+		return( QueryCache.DEFAULT_SIZE );
+	}
 }
@@ -17,16 +17,22 @@
 package org.homedns.mkh.databuffer.api;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.Writer;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.sql.rowset.WebRowSet;
 
 import org.homedns.mkh.databuffer.Column;
 import org.homedns.mkh.databuffer.DataBufferDesc;
+import org.homedns.mkh.databuffer.Filter;
 import com.akiban.sql.StandardException;
 
 /**
@@ -35,6 +41,14 @@ import com.akiban.sql.StandardException;
  */
 public interface DataBuffer extends AutoCloseable {
 
+	/**
+	 * Specifies binary data format {@link #writeBinary(OutputStream)}
+	 */
+	int BINARY = 4;
+	/**
+	 * Specifies CSV data format {@link #writeCsv(Writer)}
+	 */
+	int CSV = 5;
 	/**
 	 * Specifies delete SQL query 
 	 */
@@ -83,7 +97,61 @@ public interface DataBuffer extends AutoCloseable {
 	 * @throws SQLException
 	 */
 	public void closeConn( ) throws SQLException;
+
+	/**
+	 * Sets listener which receives {@link #saveBatch(int)} progress after each
+	 * executed batch, it's used by the data buffer copies created to save data
+	 * {@link #save(int, int, boolean, Object)} as well.
+	 * 
+	 * @param listener
+	 *            the batch listener or null to remove it
+	 */
+	void setBatchListener( BatchListener listener );
+
+	/**
+	 * Cancels the statement which is executed by this data buffer if any. It 
+	 * may be called from any thread. Server paging retrieve can't be cancelled.
+	 * 
+	 * @throws SQLException
+	 */
+	void cancel( ) throws SQLException;
 	
+	/**
+	 * Reads data from database and passes rows one by one to the consumer
+	 * without keeping them in the data buffer. The rows are read straight from
+	 * the result set, so the memory used doesn't depend on the number of rows.
+	 * The database connection is released when all rows are read or on error.
+	 * 
+	 * @param args
+	 *            the retrieval arguments list or null
+	 * @param consumer
+	 *            the row consumer
+	 * 
+	 * @return number of read rows
+	 * 
+	 * @throws Exception
+	 */
+	public int fetch( List< Serializable > args, RowConsumer consumer ) throws Exception;
+
+	/**
+	 * Reads data from database and passes rows one by one to the consumer
+	 * without keeping them in the data buffer. The rows are read straight from
+	 * the result set, so the memory used doesn't depend on the number of rows.
+	 * The database connection is released when all rows are read or on error.
+	 * 
+	 * @param args
+	 *            the retrieval arguments list or null
+	 * @param sAddWhere
+	 *            the additional conditions for the WHERE clause or null
+	 * @param consumer
+	 *            the row consumer
+	 * 
+	 * @return number of read rows
+	 * 
+	 * @throws Exception
+	 */
+	public int fetch( List< Serializable > args, String sAddWhere, RowConsumer consumer ) throws Exception;
+
 	/**
 	 * Returns data buffer records as string array.
 	 * 
@@ -185,6 +253,84 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	String getJson( ) throws SQLException;
 
+	/**
+	 * Writes data buffer data as json array of rows to the writer. Rows are
+	 * encoded one by one without building the whole document in memory.
+	 * Timestamps are written in the server date format. The writer is flushed
+	 * but not closed.
+	 * 
+	 * @param writer
+	 *            the target writer
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	void writeJson( Writer writer ) throws SQLException, IOException;
+
+	/**
+	 * Writes data buffer data as UTF-8 encoded json to the output stream,
+	 * {@see #writeJson(Writer)}. The stream is flushed but not closed.
+	 * 
+	 * @param out
+	 *            the target output stream
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	void writeJson( OutputStream out ) throws SQLException, IOException;
+
+	/**
+	 * Returns data buffer data in binary format {@see #writeBinary(OutputStream)}
+	 * 
+	 * @return the data buffer data in binary format
+	 * 
+	 * @throws SQLException
+	 */
+	byte[] getBinary( ) throws SQLException;
+
+	/**
+	 * Writes data buffer data in versioned binary format to the output stream.
+	 * The header describes data buffer columns names and types, rows follow
+	 * with null bitmaps and typed values, integers and timestamps (epoch 
+	 * milliseconds) are written as varints, STRING and ASCIISTRING values are
+	 * dictionary encoded. Rows are encoded one by one without building the 
+	 * whole data in memory, the values are the same as json ones. The stream
+	 * is flushed but not closed.
+	 * 
+	 * @param out
+	 *            the target output stream
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	void writeBinary( OutputStream out ) throws SQLException, IOException;
+
+	/**
+	 * Returns data buffer data in CSV format {@see #writeCsv(Writer)}
+	 * 
+	 * @return the data buffer data in CSV format
+	 * 
+	 * @throws SQLException
+	 */
+	String getCsv( ) throws SQLException;
+
+	/**
+	 * Writes data buffer data in RFC 4180 CSV format to the writer. The first
+	 * record is the header with the column names, values are formatted by the
+	 * column type and the column format pattern if any, timestamps without 
+	 * pattern are written in the server date format. Null is written as empty
+	 * field and empty string as "". Rows are encoded one by one without 
+	 * building the whole data in memory, the values are the same as json 
+	 * ones. The writer is flushed but not closed.
+	 * 
+	 * @param writer
+	 *            the target writer
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	void writeCsv( Writer writer ) throws SQLException, IOException;
+
 	/**
 	 * Returns current page number.
 	 * 
@@ -200,7 +346,8 @@ public interface DataBuffer extends AutoCloseable {
 	int getPageSize( );
 
 	/**
-	 * Returns parent web rowset
+	 * Returns parent web rowset, columnar storage returns read only copy of
+	 * its rows, see {@link org.homedns.mkh.databuffer.ColumnarDataBuffer#getParent()}
 	 * 
 	 * @return the web rowset
 	 */
@@ -233,6 +380,18 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	Serializable[] getRowData( int iRow ) throws SQLException;
 
+	/**
+	 * Returns view of the specified row, the view reads values directly from
+	 * the data buffer without copying
+	 * 
+	 * @param iRow the row index, 0-based as in {@link #getRowData(int)}
+	 * 
+	 * @return the data row
+	 * 
+	 * @throws SQLException
+	 */
+	DataRow getRow( int iRow ) throws SQLException;
+
 	/**
 	 * Returns data buffer data as xml.
 	 * 
@@ -242,6 +401,22 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	String getXml( ) throws SQLException, IOException;
 
+	/**
+	 * Writes data buffer data to the output stream in UTF-8 encoded WebRowSet
+	 * xml format {@link javax.sql.rowset.WebRowSet#writeXml(OutputStream)}. 
+	 * Properties and metadata are taken from the data buffer description, 
+	 * rows are written one by one without building the whole document in 
+	 * memory, inserted, updated and deleted rows not saved yet are written as 
+	 * WebRowSet does. The stream is flushed but not closed.
+	 * 
+	 * @param out
+	 *            the target output stream
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	void writeXml( OutputStream out ) throws SQLException, IOException;
+
 	/**
 	 * Inserts data to the data buffer immediately following the
 	 * current row.
@@ -295,6 +470,60 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	void putJson( String sJsonData ) throws SQLException, ParseException, IOException;
 
+	/**
+	 * Puts data as json array of rows from the reader to the data buffer. The
+	 * json is read token by token and each value is converted to the column
+	 * type as it's read, so the whole payload is never held in memory. Row
+	 * values are positional, missing trailing values are set to null. The
+	 * reader isn't closed.
+	 * 
+	 * @param reader
+	 *            the json data reader
+	 * 
+	 * @throws SQLException, ParseException, IOException 
+	 */
+	void putJson( Reader reader ) throws SQLException, ParseException, IOException;
+
+	/**
+	 * Puts data in binary format to the data buffer {@see #putBinary(InputStream)}
+	 * 
+	 * @param data
+	 *            the data in binary format
+	 * 
+	 * @throws SQLException, IOException
+	 */
+	void putBinary( byte[] data ) throws SQLException, IOException;
+
+	/**
+	 * Puts data in binary format {@see #writeBinary(OutputStream)} from the 
+	 * input stream to the data buffer. Stream columns are matched with data 
+	 * buffer columns by name, columns missing in the stream are set to null.
+	 * The stream may be read ahead beyond the end of the data and it isn't 
+	 * closed.
+	 * 
+	 * @param in
+	 *            the data input stream
+	 * 
+	 * @throws SQLException, IOException
+	 */
+	void putBinary( InputStream in ) throws SQLException, IOException;
+
+	/**
+	 * Puts data in CSV format {@see #writeCsv(Writer)} from the reader to the
+	 * data buffer. The header columns are matched with data buffer columns by
+	 * name, columns missing in the header are set to null. Values are parsed
+	 * by the column type and the column format pattern as they're read. The 
+	 * reader isn't closed. To save large CSV data use 
+	 * {@link #save(int, int, boolean, Object)}, which doesn't keep the whole
+	 * data in memory.
+	 * 
+	 * @param in
+	 *            the CSV data reader
+	 * 
+	 * @throws SQLException, ParseException, IOException
+	 */
+	void putCsv( Reader in ) throws SQLException, ParseException, IOException;
+
 	/**
 	 * Puts data from xml string to the data buffer
 	 * 
@@ -305,6 +534,21 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	void putXml( String sXml ) throws SQLException;
 
+	/**
+	 * Replaces data buffer data with the data in WebRowSet xml format 
+	 * {@see #writeXml(OutputStream)} from the input stream. Values are read in
+	 * the data buffer column number order, properties and metadata are 
+	 * skipped, row changes are restored as not saved changes. The stream isn't
+	 * closed.
+	 * 
+	 * @param in
+	 *            the xml input stream
+	 * 
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	void readXml( InputStream in ) throws SQLException, IOException;
+
 	/**
 	 * Retrieves data from database to the data buffer.
 	 * 
@@ -352,6 +596,96 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	int retrieve( String sAddWhere ) throws SQLException, StandardException;
 
+	/**
+	 * Retrieves data from database to the data buffer using structured
+	 * filter. Filter conditions are added to the WHERE clause with '?'
+	 * placeholders, so the same filter structure gives the same statement.
+	 * Restrictions of {@link #retrieve(List, String, Filter)} apply.
+	 * 
+	 * @param filter
+	 *            the filter or null
+	 * 
+	 * @return number of retrieved rows
+	 * 
+	 * @throws SQLException, StandardException, ParseException
+	 */
+	int retrieve( Filter filter ) throws SQLException, StandardException, ParseException;
+
+	/**
+	 * Retrieves data from database to the data buffer using structured
+	 * filter. Filter conditions are added to the WHERE clause along with the
+	 * additional conditions with '?' placeholders, their values are bound 
+	 * after the query arguments, so the query placeholders must precede the 
+	 * end of the WHERE clause. Filter is rejected if the description query has
+	 * placeholders in GROUP BY, HAVING, ORDER BY, LIMIT, OFFSET, FETCH clauses
+	 * or in the following UNION, INTERSECT, EXCEPT queries.
+	 * 
+	 * @param args
+	 *            the query arguments list or null
+	 * @param sAddWhere
+	 *            the additional conditions for the WHERE clause or null
+	 * @param filter
+	 *            the filter or null
+	 * 
+	 * @return number of retrieved rows
+	 * 
+	 * @throws SQLException, StandardException, ParseException
+	 */
+	int retrieve( 
+		List< Serializable > args, String sAddWhere, Filter filter 
+	) throws SQLException, StandardException, ParseException;
+
+	/**
+	 * Retrieves data from database to the data buffer asynchronously on the 
+	 * data source executor. Cancellation of the returned future cancels the 
+	 * statement in execution. The data buffer must not be used until the 
+	 * future is completed.
+	 * 
+	 * @return the future of the number of retrieved rows
+	 */
+	CompletableFuture< Integer > retrieveAsync( );
+
+	/**
+	 * Retrieves data from database to the data buffer asynchronously, 
+	 * see {@link #retrieveAsync()}
+	 * 
+	 * @param args
+	 *            the query arguments list or null
+	 * @param sAddWhere
+	 *            the additional conditions for the WHERE clause or null
+	 * 
+	 * @return the future of the number of retrieved rows
+	 */
+	CompletableFuture< Integer > retrieveAsync( List< Serializable > args, String sAddWhere );
+
+	/**
+	 * Saves data in database asynchronously, see 
+	 * {@link #save(int, int, boolean, Object)} and {@link #retrieveAsync()}
+	 * 
+	 * @param iQueryType
+	 *            the sql modification query type
+	 * @param iDataFormat
+	 *            the data format
+	 * @param bBatch
+	 *            true to save data by batch
+	 * @param data
+	 *            the data to save
+	 * 
+	 * @return the future completed when data are saved
+	 */
+	CompletableFuture< Void > saveAsync( int iQueryType, int iDataFormat, boolean bBatch, Object data );
+
+	/**
+	 * Submits a batch of modifying commands to the database asynchronously, 
+	 * see {@link #saveBatch(int)} and {@link #retrieveAsync()}
+	 * 
+	 * @param iQueryType
+	 *            the sql modification query type
+	 * 
+	 * @return the future completed when data are saved
+	 */
+	CompletableFuture< Void > saveBatchAsync( int iQueryType );
+
 	/**
 	 * Saves current data buffer row to the database.
 	 * 
@@ -377,9 +711,15 @@ public interface DataBuffer extends AutoCloseable {
 	 *            the data format
 	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#XML},
 	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#JSON},
-	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#SERIALIZABLE_ARRAY}
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#SERIALIZABLE_ARRAY},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#BINARY},
+	 *            {@link org.homedns.mkh.databuffer.DataBufferImpl#CSV}
 	 * @param data
-	 *            the data to save
+	 *            the data to save, json and CSV data may be passed as string 
+	 *            or reader, xml data as string or input stream, binary data as
+	 *            byte array or input stream. CSV data is read and saved in 
+	 *            chunks, so the whole data isn't kept in memory, each chunk is
+	 *            saved separately
 	 * 
 	 * @throws Exception
 	 */
@@ -402,6 +742,12 @@ public interface DataBuffer extends AutoCloseable {
 
 	/**
 	 * Submits a batch of modifying commands to the database to save data buffer data.
+	 * Rows are sent by {@link org.homedns.mkh.databuffer.Table#getBatchSize()} rows
+	 * at a time. If {@link org.homedns.mkh.databuffer.Table#getCommitInterval()} is
+	 * set, rows are saved in transaction committed at the first batch boundary 
+	 * after the commit interval is reached, on failure only not committed rows are
+	 * rolled back, otherwise rows are saved in the connection auto commit mode.
+	 * Progress is reported to the batch listener {@link #setBatchListener(BatchListener)}.
 	 * 
 	 * @param iQueryType
 	 *            the sql modification query type
@@ -413,6 +759,45 @@ public interface DataBuffer extends AutoCloseable {
 	 */
 	void saveBatch( int iQueryType ) throws SQLException;
 
+	/**
+	 * Saves changes made since the data buffer was retrieved or changes were
+	 * saved last time, i.e. deletes deleted rows, updates changed columns of
+	 * the updated rows and inserts inserted rows in one transaction. Updated
+	 * rows are grouped by the set of changed columns, so each group is saved
+	 * by one update query batch. On success all rows are marked unchanged.
+	 * If the data buffer is bound to the unit of work 
+	 * {@link org.homedns.mkh.databuffer.UnitOfWork} nothing is saved, changes
+	 * are kept and saved by the unit of work commit.
+	 * 
+	 * @throws SQLException
+	 */
+	void saveChanges( ) throws SQLException;
+
+	/**
+	 * Updates value of the specified row column, the row is marked updated.
+	 * 
+	 * @param iRow
+	 *            the row index (0 based)
+	 * @param sColName
+	 *            the column name
+	 * @param value
+	 *            the value to set or null
+	 * 
+	 * @throws SQLException
+	 */
+	void updateValue( int iRow, String sColName, Serializable value ) throws SQLException;
+
+	/**
+	 * Deletes specified row, the row is deleted from database by the
+	 * {@link #saveChanges()}
+	 * 
+	 * @param iRow
+	 *            the row index (0 based)
+	 * 
+	 * @throws SQLException
+	 */
+	void deleteRow( int iRow ) throws SQLException;
+
 	/**
 	 * Converts specified value to the sql data type 
 	 * 
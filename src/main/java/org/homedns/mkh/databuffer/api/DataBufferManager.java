@@ -24,6 +24,8 @@ import java.util.Locale;
 import javax.sql.DataSource;
 import javax.sql.rowset.RowSetFactory;
 import javax.sql.rowset.RowSetProvider;
+import org.homedns.mkh.databuffer.TypeCodec;
+import org.homedns.mkh.databuffer.UnitOfWork;
 
 /**
  * Data buffer manager
@@ -31,7 +33,13 @@ import javax.sql.rowset.RowSetProvider;
  */
 public interface DataBufferManager {
 	public static final Locale DEFAULT_LOCALE = Locale.US;
-	public static final SimpleDateFormat SERVER_DATE_FMT = new SimpleDateFormat( "yyyy-MM-dd HH:mm:ss" );
+	/**
+	 * @deprecated SimpleDateFormat isn't thread safe, use 
+	 *             {@link org.homedns.mkh.databuffer.TypeCodec} of the TIMESTAMP
+	 *             type to parse and format timestamps
+	 */
+	@Deprecated
+	public static final SimpleDateFormat SERVER_DATE_FMT = new SimpleDateFormat( TypeCodec.SERVER_DATE_PATTERN );
 	public static final String DEFAULT_DATASOURCE_NAME = "default";
 	
 	/**
@@ -99,6 +107,27 @@ public interface DataBufferManager {
 	 */
 	public Locale getLocale( );
 	
+	/**
+	 * Returns new unit of work for the default data source
+	 * 
+	 * @return the unit of work
+	 */
+	public default UnitOfWork newUnitOfWork( ) {
+		return( newUnitOfWork( DEFAULT_DATASOURCE_NAME ) );
+	}
+
+	/**
+	 * Returns new unit of work, it binds data buffers of the data source to 
+	 * one connection and transaction
+	 * 
+	 * @param sDataSourceName the data source name
+	 * 
+	 * @return the unit of work
+	 */
+	public default UnitOfWork newUnitOfWork( String sDataSourceName ) {
+		return( new UnitOfWork( getDataSource( sDataSourceName ) ) );
+	}
+
 	/**
 	 * Sets resource
 	 * 
@@ -0,0 +1,177 @@
+/* 
+ * Copyright 2026 Mikhail Khodonov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.homedns.mkh.databuffer.api;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Data row, typed read only view of the single data row. Column indexes are 
+ * 0-based and equal to {@link org.homedns.mkh.databuffer.Column#getColNum()}.
+ * The view can be reused for the next row, so to keep the row data use 
+ * {@link #toArray()}
+ *
+ */
+public interface DataRow {
+
+	/**
+	 * Returns number of columns
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumnCount( );
+
+	/**
+	 * Returns column value converted to the column data type 
+	 * {@link org.homedns.mkh.databuffer.Type}
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public Object getObject( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value converted to the column data type 
+	 * {@link org.homedns.mkh.databuffer.Type}
+	 * 
+	 * @param sColName the column name
+	 * 
+	 * @return the column value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public Object getObject( String sColName ) throws SQLException;
+
+	/**
+	 * Returns column original value, i.e. value before it was changed in the
+	 * data buffer and not saved yet
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column original value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public default Object getOriginalObject( int iCol ) throws SQLException {
+		return( getObject( iCol ) );
+	}
+
+	/**
+	 * Returns true if column value is null
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return true if column value is null
+	 * 
+	 * @throws SQLException
+	 */
+	public boolean isNull( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value as int, 0 if value is null
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value
+	 * 
+	 * @throws SQLException
+	 */
+	public int getInt( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value as long, 0 if value is null
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value
+	 * 
+	 * @throws SQLException
+	 */
+	public long getLong( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value as double, 0 if value is null
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value
+	 * 
+	 * @throws SQLException
+	 */
+	public double getDouble( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value as boolean, false if value is null
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value
+	 * 
+	 * @throws SQLException
+	 */
+	public boolean getBoolean( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value as string
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public String getString( int iCol ) throws SQLException;
+
+	/**
+	 * Returns column value as timestamp
+	 * 
+	 * @param iCol the column index
+	 * 
+	 * @return the column value or null
+	 * 
+	 * @throws SQLException
+	 */
+	public Timestamp getTimestamp( int iCol ) throws SQLException;
+
+	/**
+	 * Returns row values copy
+	 * 
+	 * @return the row values
+	 * 
+	 * @throws SQLException
+	 */
+	public Serializable[] toArray( ) throws SQLException;
+
+	/**
+	 * Returns row original values copy
+	 * 
+	 * @return the row original values
+	 * 
+	 * @throws SQLException
+	 */
+	public default Serializable[] toOriginalArray( ) throws SQLException {
+		Serializable[] row = new Serializable[ getColumnCount( ) ];
+		for( int iCol = 0; iCol < row.length; iCol++ ) {
+			row[ iCol ] = ( Serializable )getOriginalObject( iCol );
+		}
+		return( row );
+	}
+}
@@ -0,0 +1,240 @@
+/* 
+ * Copyright 2026 Mikhail Khodonov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.homedns.mkh.databuffer.api;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.log4j.Logger;
+import org.homedns.mkh.databuffer.Value;
+
+/**
+ * Drop down values cache. Values are cached per drop down data buffer name,
+ * display column and data column. Expired values are refreshed in the background 
+ * and stale values are returned while refresh is running. 
+ *
+ */
+public class DropDownCache implements AutoCloseable {
+	private static final Logger LOG = Logger.getLogger( DropDownCache.class );
+
+	/**
+	 * Default values time to live in milliseconds
+	 */
+	public static final long DEFAULT_TTL = 300000L;
+
+	private ConcurrentHashMap< String, Entry > entries;
+	private volatile long lTTL;
+	private ExecutorService executor;
+
+	/**
+	 * Creates cache with default time to live
+	 */
+	public DropDownCache( ) {
+		this( DEFAULT_TTL );
+	}
+
+	/**
+	 * @param lTTL
+	 *            the values time to live in milliseconds, values never expire if
+	 *            it's <= 0
+	 */
+	public DropDownCache( long lTTL ) {
+		this.lTTL = lTTL;
+		entries = new ConcurrentHashMap< >( );
+		executor = Executors.newSingleThreadExecutor( 
+			r -> {
+				Thread thread = new Thread( r, "dddb-refresh" );
+				thread.setDaemon( true );
+				return( thread );
+			}
+		);
+	}
+
+	/**
+	 * Returns values time to live
+	 * 
+	 * @return the time to live in milliseconds
+	 */
+	public long getTTL( ) {
+		return( lTTL );
+	}
+
+	/**
+	 * Sets values time to live
+	 * 
+	 * @param lTTL
+	 *            the time to live in milliseconds, values never expire if it's <= 0
+	 */
+	public void setTTL( long lTTL ) {
+		this.lTTL = lTTL;
+	}
+
+	/**
+	 * Returns drop down values from the cache. Missing values are loaded in the
+	 * calling thread, expired ones are returned as is and refreshed in the
+	 * background.
+	 * 
+	 * @param context
+	 *            the context to load values
+	 * @param sDDDBName
+	 *            the drop down data buffer name
+	 * @param sDisplayCol
+	 *            the display column name
+	 * @param sDataCol
+	 *            the data column name
+	 * 
+	 * @return the drop down values
+	 * 
+	 * @throws Exception
+	 */
+	public Value[] get( Context context, String sDDDBName, String sDisplayCol, String sDataCol ) throws Exception {
+		String sKey = getKey( sDDDBName, sDisplayCol, sDataCol );
+		Entry entry = entries.get( sKey );
+		if( entry == null ) {
+			// loading may open others data buffers, so it's done outside of the map update
+			Entry loaded = new Entry( context.getDropDownValues( sDDDBName, sDisplayCol, sDataCol ) );
+			entry = entries.putIfAbsent( sKey, loaded );
+			if( entry == null ) {
+				entry = loaded;
+			}
+		} else if( entry.isExpired( lTTL ) && entry.bRefreshing.compareAndSet( false, true ) ) {
+			refresh( sKey, entry, context, sDDDBName, sDisplayCol, sDataCol );
+		}
+		return( entry.values );
+	}
+
+	/**
+	 * Removes all values of the specified drop down data buffer, they will be
+	 * loaded on the next request
+	 * 
+	 * @param sDDDBName
+	 *            the drop down data buffer name
+	 */
+	public void invalidate( String sDDDBName ) {
+		String sPrefix = sDDDBName + "/";
+		entries.keySet( ).removeIf( sKey -> sKey.startsWith( sPrefix ) );
+	}
+
+	/**
+	 * Removes all values
+	 */
+	public void invalidateAll( ) {
+		entries.clear( );
+	}
+
+	/**
+	 * Stops background refresh
+	 */
+	@Override
+	public void close( ) {
+		executor.shutdownNow( );
+		try {
+			executor.awaitTermination( 1, TimeUnit.SECONDS );
+		}
+		catch( InterruptedException e ) {
+			Thread.currentThread( ).interrupt( );
+		}
+	}
+
+	/**
+	 * Submits values refresh, on failure stale values are kept and refresh 
+	 * will be retried on the next request
+	 * 
+	 * @param sKey
+	 *            the cache key
+	 * @param entry
+	 *            the expired entry
+	 * @param context
+	 *            the context to load values
+	 * @param sDDDBName
+	 *            the drop down data buffer name
+	 * @param sDisplayCol
+	 *            the display column name
+	 * @param sDataCol
+	 *            the data column name
+	 */
+	private void refresh( 
+		String sKey, Entry entry, Context context, String sDDDBName, String sDisplayCol, String sDataCol 
+	) {
+		try {
+			executor.execute( 
+				( ) -> {
+					try {
+						Entry refreshed = new Entry( context.getDropDownValues( sDDDBName, sDisplayCol, sDataCol ) );
+						// entry may be invalidated while refresh was running
+						entries.replace( sKey, entry, refreshed );
+						LOG.debug( "drop down values refreshed: " + sKey );
+					}
+					catch( Exception e ) {
+						LOG.error( sKey + ": " + e.getMessage( ), e );
+					}
+					finally {
+						entry.bRefreshing.set( false );
+					}
+				}
+			);
+		}
+		catch( RuntimeException e ) {
+			entry.bRefreshing.set( false );
+			LOG.error( sKey + ": " + e.getMessage( ), e );
+		}
+	}
+
+	/**
+	 * Returns cache key
+	 * 
+	 * @param sDDDBName
+	 *            the drop down data buffer name
+	 * @param sDisplayCol
+	 *            the display column name
+	 * @param sDataCol
+	 *            the data column name
+	 * 
+	 * @return the cache key
+	 */
+	private static String getKey( String sDDDBName, String sDisplayCol, String sDataCol ) {
+		return( sDDDBName + "/" + sDisplayCol + "/" + sDataCol );
+	}
+
+	/**
+	 * Cached values
+	 */
+	private static class Entry {
+		private final Value[] values;
+		private final long lLoaded;
+		private final AtomicBoolean bRefreshing = new AtomicBoolean( );
+
+		public Entry( Value[] values ) {
+			this.values = values;
+			lLoaded = System.currentTimeMillis( );
+		}
+
+		/**
+		 * Returns true if values are expired
+		 * 
+		 * @param lTTL
+		 *            the time to live
+		 * 
+		 * @return true if values are expired
+		 */
+		public boolean isExpired( long lTTL ) {
+			return( lTTL > 0 && System.currentTimeMillis( ) - lLoaded > lTTL );
+		}
+	}
+}
@@ -0,0 +1,293 @@
+/* 
+ * Copyright 2026 Mikhail Khodonov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.homedns.mkh.databuffer.api;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory metrics, timer values are kept in the histograms with 8 linear
+ * sub-buckets per power of two (relative error is less than 12.5%), so the
+ * memory used doesn't depend on the number of recorded values. Metrics are
+ * keyed by {@link #key(String, String, String)}.
+ *
+ */
+public class InMemoryMetrics implements Metrics {
+	private ConcurrentHashMap< String, Histogram > timers;
+	private ConcurrentHashMap< String, LongAdder > counters;
+
+	public InMemoryMetrics( ) {
+		timers = new ConcurrentHashMap< >( );
+		counters = new ConcurrentHashMap< >( );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.Metrics#record(java.lang.String, java.lang.String, java.lang.String, long)
+	 */
+	@Override
+	public void record( String sMetric, String sDataBuffer, String sDataSource, long lNanos ) {
+		timers.computeIfAbsent( key( sMetric, sDataBuffer, sDataSource ), k -> new Histogram( ) ).record( lNanos );
+	}
+
+	/**
+	 * @see org.homedns.mkh.databuffer.api.Metrics#add(java.lang.String, java.lang.String, java.lang.String, long)
+	 */
+	@Override
+	public void add( String sMetric, String sDataBuffer, String sDataSource, long lValue ) {
+		counters.computeIfAbsent( key( sMetric, sDataBuffer, sDataSource ), k -> new LongAdder( ) ).add( lValue );
+	}
+
+	/**
+	 * Returns timer histogram
+	 * 
+	 * @param sMetric
+	 *            the timer name
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * @param sDataSource
+	 *            the data source name
+	 * 
+	 * @return the histogram or null if nothing was recorded
+	 */
+	public Histogram getTimer( String sMetric, String sDataBuffer, String sDataSource ) {
+		return( timers.get( key( sMetric, sDataBuffer, sDataSource ) ) );
+	}
+
+	/**
+	 * Returns counter value
+	 * 
+	 * @param sMetric
+	 *            the counter name
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * @param sDataSource
+	 *            the data source name
+	 * 
+	 * @return the counter value
+	 */
+	public long getCounter( String sMetric, String sDataBuffer, String sDataSource ) {
+		LongAdder counter = counters.get( key( sMetric, sDataBuffer, sDataSource ) );
+		return( counter == null ? 0L : counter.sum( ) );
+	}
+
+	/**
+	 * Returns all timers sorted by key
+	 * 
+	 * @return the timers
+	 */
+	public Map< String, Histogram > getTimers( ) {
+		return( Collections.unmodifiableMap( new TreeMap< >( timers ) ) );
+	}
+
+	/**
+	 * Returns all counters values sorted by key
+	 * 
+	 * @return the counters values
+	 */
+	public Map< String, Long > getCounters( ) {
+		Map< String, Long > values = new TreeMap< >( );
+		counters.forEach( ( sKey, counter ) -> values.put( sKey, counter.sum( ) ) );
+		return( Collections.unmodifiableMap( values ) );
+	}
+
+	/**
+	 * Removes all timers and counters
+	 */
+	public void reset( ) {
+		timers.clear( );
+		counters.clear( );
+	}
+
+	/**
+	 * Returns metric key
+	 * 
+	 * @param sMetric
+	 *            the metric name
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * @param sDataSource
+	 *            the data source name
+	 * 
+	 * @return the key, e.g. retrieve{dataBuffer=orders,dataSource=default}
+	 */
+	public static String key( String sMetric, String sDataBuffer, String sDataSource ) {
+		return( 
+			sMetric + "{dataBuffer=" + ( sDataBuffer == null ? "" : sDataBuffer ) + 
+			",dataSource=" + ( sDataSource == null ? "" : sDataSource ) + "}" 
+		);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString( ) {
+		StringBuilder sb = new StringBuilder( );
+		getTimers( ).forEach( ( sKey, timer ) -> sb.append( sKey ).append( ' ' ).append( timer ).append( '\n' ) );
+		getCounters( ).forEach( ( sKey, lValue ) -> sb.append( sKey ).append( ' ' ).append( lValue ).append( '\n' ) );
+		return( sb.toString( ) );
+	}
+
+	/**
+	 * Histogram of non negative values
+	 */
+	public static class Histogram {
+		private static final int SUB_BUCKETS = 8;
+		private static final int SUB_BITS = 3;
+		private static final int BUCKETS = ( 64 - SUB_BITS ) * SUB_BUCKETS;
+
+		private AtomicLongArray buckets;
+		private LongAdder count;
+		private LongAdder sum;
+		private AtomicLong max;
+
+		private Histogram( ) {
+			buckets = new AtomicLongArray( BUCKETS );
+			count = new LongAdder( );
+			sum = new LongAdder( );
+			max = new AtomicLong( );
+		}
+
+		/**
+		 * Records value, negative value is recorded as 0
+		 * 
+		 * @param lValue
+		 *            the value to record
+		 */
+		public void record( long lValue ) {
+			lValue = Math.max( lValue, 0L );
+			buckets.incrementAndGet( getIndex( lValue ) );
+			count.increment( );
+			sum.add( lValue );
+			max.accumulateAndGet( lValue, Math::max );
+		}
+
+		/**
+		 * Returns number of recorded values
+		 * 
+		 * @return the number of values
+		 */
+		public long getCount( ) {
+			return( count.sum( ) );
+		}
+
+		/**
+		 * Returns sum of recorded values
+		 * 
+		 * @return the sum
+		 */
+		public long getSum( ) {
+			return( sum.sum( ) );
+		}
+
+		/**
+		 * Returns max recorded value
+		 * 
+		 * @return the max value
+		 */
+		public long getMax( ) {
+			return( max.get( ) );
+		}
+
+		/**
+		 * Returns mean of recorded values
+		 * 
+		 * @return the mean or 0 if nothing was recorded
+		 */
+		public double getMean( ) {
+			long lCount = getCount( );
+			return( lCount == 0 ? 0.0 : ( double )getSum( ) / lCount );
+		}
+
+		/**
+		 * Returns value at the specified percentile, the value is the upper
+		 * bound of the bucket where percentile falls
+		 * 
+		 * @param dPercentile
+		 *            the percentile (0 - 100)
+		 * 
+		 * @return the value or 0 if nothing was recorded
+		 */
+		public long getPercentile( double dPercentile ) {
+			long lTotal = 0L;
+			for( int i = 0; i < BUCKETS; i++ ) {
+				lTotal += buckets.get( i );
+			}
+			if( lTotal == 0 ) {
+				return( 0L );
+			}
+			long lRank = Math.max( 1L, ( long )Math.ceil( lTotal * dPercentile / 100.0 ) );
+			long lSeen = 0L;
+			for( int i = 0; i < BUCKETS; i++ ) {
+				lSeen += buckets.get( i );
+				if( lSeen >= lRank ) {
+					return( Math.min( getUpperBound( i ), getMax( ) ) );
+				}
+			}
+			return( getMax( ) );
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString( ) {
+			return( 
+				"count=" + getCount( ) + ", mean=" + ( long )getMean( ) + ", p50=" + getPercentile( 50 ) + 
+				", p99=" + getPercentile( 99 ) + ", max=" + getMax( ) 
+			);
+		}
+
+		/**
+		 * Returns bucket index for the value
+		 * 
+		 * @param lValue
+		 *            the non negative value
+		 * 
+		 * @return the bucket index
+		 */
+		private static int getIndex( long lValue ) {
+			if( lValue < SUB_BUCKETS ) {
+				return( ( int )lValue );
+			}
+			int iShift = 63 - Long.numberOfLeadingZeros( lValue ) - SUB_BITS;
+			return( ( iShift + 1 ) * SUB_BUCKETS + ( int )( ( lValue >>> iShift ) & ( SUB_BUCKETS - 1 ) ) );
+		}
+
+		/**
+		 * Returns the largest value of the bucket
+		 * 
+		 * @param iIndex
+		 *            the bucket index
+		 * 
+		 * @return the bucket upper bound
+		 */
+		private static long getUpperBound( int iIndex ) {
+			if( iIndex < SUB_BUCKETS ) {
+				return( iIndex );
+			}
+			int iShift = iIndex / SUB_BUCKETS - 1;
+			long lNext = ( long )( SUB_BUCKETS + iIndex % SUB_BUCKETS + 1 ) << iShift;
+			return( lNext - 1 );
+		}
+	}
+}
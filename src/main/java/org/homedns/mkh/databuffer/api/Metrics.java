@@ -0,0 +1,115 @@
+/* 
+ * Copyright 2026 Mikhail Khodonov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.homedns.mkh.databuffer.api;
+
+/**
+ * Data buffer metrics. Timers and counters are tagged by data buffer name and
+ * data source name, tag is null if it's unknown. Implementations are called
+ * by the data buffers concurrently, so they must be thread safe and cheap.
+ * Default methods do nothing.
+ *
+ */
+public interface Metrics {
+	/**
+	 * retrieve latency timer
+	 */
+	public static final String RETRIEVE			= "retrieve";
+	/**
+	 * retrieve results cache hits counter
+	 */
+	public static final String CACHE_HITS		= "retrieve.cache.hits";
+	/**
+	 * retrieves coalesced with the identical retrieve in flight counter
+	 */
+	public static final String COALESCED		= "retrieve.coalesced";
+	/**
+	 * fetched rows counter
+	 */
+	public static final String ROWS_FETCHED		= "rows.fetched";
+	/**
+	 * connection acquisition wait timer
+	 */
+	public static final String CONNECTION_WAIT	= "connection.wait";
+	/**
+	 * save latency timer
+	 */
+	public static final String SAVE				= "save";
+	/**
+	 * batch save latency timer
+	 */
+	public static final String SAVE_BATCH		= "save.batch";
+	/**
+	 * saved rows counter
+	 */
+	public static final String ROWS_SAVED		= "rows.saved";
+	/**
+	 * JSON serialization timer
+	 */
+	public static final String JSON				= "serialize.json";
+	/**
+	 * XML serialization timer
+	 */
+	public static final String XML				= "serialize.xml";
+	/**
+	 * binary serialization timer
+	 */
+	public static final String BINARY			= "serialize.binary";
+	/**
+	 * CSV serialization timer
+	 */
+	public static final String CSV				= "serialize.csv";
+	/**
+	 * open paging connections counter, it's incremented when connection is
+	 * opened and decremented when it's closed
+	 */
+	public static final String PAGING_CONNECTIONS	= "paging.connections";
+
+	/**
+	 * No-op metrics
+	 */
+	public static final Metrics NOOP = new Metrics( ) { };
+
+	/**
+	 * Records timer value
+	 * 
+	 * @param sMetric
+	 *            the timer name
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * @param sDataSource
+	 *            the data source name
+	 * @param lNanos
+	 *            the elapsed time in nanoseconds
+	 */
+	public default void record( String sMetric, String sDataBuffer, String sDataSource, long lNanos ) {
+	}
+
+	/**
+	 * Adds value to the counter
+	 * 
+	 * @param sMetric
+	 *            the counter name
+	 * @param sDataBuffer
+	 *            the data buffer name
+	 * @param sDataSource
+	 *            the data source name
+	 * @param lValue
+	 *            the value to add, may be negative
+	 */
+	public default void add( String sMetric, String sDataBuffer, String sDataSource, long lValue ) {
+	}
+}
@@ -0,0 +1,36 @@
+/* 
+ * Copyright 2026 Mikhail Khodonov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.homedns.mkh.databuffer.api;
+
+/**
+ * Row consumer, receives rows read by 
+ * {@link org.homedns.mkh.databuffer.api.DataBuffer#fetch(java.util.List, String, RowConsumer)}
+ * one by one
+ *
+ */
+@FunctionalInterface
+public interface RowConsumer {
+
+	/**
+	 * Accepts data row, the row object is valid only within this call
+	 * 
+	 * @param row the data row
+	 * 
+	 * @throws Exception
+	 */
+	public void accept( DataRow row ) throws Exception;
+}
@@ -79,4 +79,19 @@ public interface SessionParameters {
 	 * @return the parameter value or null if not found
 	 */
 	public String getParameterValue( String sKey );
+
+	/**
+	 * Returns key identifying parameter values currently set by
+	 * {@link #set2Session(Connection)}. The key is remembered for each
+	 * physical connection the parameters were set to and if the pooled
+	 * connection is checked out again with the equal key the parameters aren't
+	 * set again. Return not null key only if parameters set to the session are
+	 * kept until the physical connection is closed.
+	 * 
+	 * @return the session key or null if parameters have to be set on each
+	 *         connection checkout (default)
+	 */
+	public default Object getSessionKey( ) {
+		return( null );
+	}
 }